@@ -0,0 +1,127 @@
+import bagel.util.Point;
+import bagel.util.Rectangle;
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Builds the game states the benchmarks run on, out of the map of level 1 and without a window.
+ * <p>
+ * Slicers are spread along the route in spawn order, i.e. the first slicer in a store is the furthest along, and
+ * towers are placed next to the route, as they would be in a game. Every state is built from a fixed seed so two
+ * runs of a benchmark see the same game.
+ */
+public final class BenchmarkScenario {
+    /**
+     * The map every benchmark is played on.
+     */
+    public static final String MAP_SRC = "res/levels/1.tmx";
+    /**
+     * The seed every benchmark state is built from.
+     */
+    public static final long SEED = 20200408L;
+    private static final double TOWER_OFFSET = 80; // px, how far towers are placed from the route
+
+    private BenchmarkScenario() {
+    }
+
+    /**
+     * Reads the route of the benchmark map.
+     *
+     * @return the route.
+     */
+    public static Route route() {
+        return new Route(new ArrayList<Point>(new MapData(MAP_SRC).getAllPolylines().get(0)));
+    }
+
+    /**
+     * Gets the area covered by the benchmark map.
+     *
+     * @return the bounds of the map.
+     */
+    public static Rectangle bounds() {
+        MapData map = new MapData(MAP_SRC);
+        return new Rectangle(0, 0, map.getWidth(), map.getHeight());
+    }
+
+    /**
+     * Spreads regular slicers along a route, furthest along first.
+     *
+     * @param route the route.
+     * @param count the number of slicers.
+     * @return the slicers.
+     */
+    public static SlicerStore regularSlicers(@NotNull Route route, int count) {
+        SlicerStore slicers = new SlicerStore(route);
+        spread(slicers, SlicerType.REGULAR, count);
+        return slicers;
+    }
+
+    /**
+     * Spreads apex slicers along a route, furthest along first.
+     *
+     * @param route the route.
+     * @param count the number of slicers.
+     * @return the slicers.
+     */
+    public static SlicerStore apexSlicers(@NotNull Route route, int count) {
+        SlicerStore slicers = new SlicerStore(route);
+        spread(slicers, SlicerType.APEX, count);
+        return slicers;
+    }
+
+    /**
+     * Spreads slicers that belong to no wave event along the route of a store, furthest along first, after the
+     * slicers already in it.
+     *
+     * @param slicers the store.
+     * @param type    the type of the slicers.
+     * @param count   the number of slicers.
+     */
+    public static void spread(@NotNull SlicerStore slicers, @NotNull SlicerType type, int count) {
+        Random random = new Random(SEED);
+        for (int i = 0; i < count; i++) {
+            slicers.spawn(type, SlicerStore.NO_OWNER, progressOf(random, slicers.getRoute(), i, count));
+        }
+    }
+
+    /**
+     * Places tanks next to a route.
+     *
+     * @param route the route.
+     * @param count the number of tanks.
+     * @return the tanks.
+     */
+    public static ArrayList<Tower> tanks(@NotNull Route route, int count) {
+        ArrayList<Tower> towers = new ArrayList<>(count);
+        for (Point point : besideRoute(new Random(SEED + 1), route, count)) {
+            towers.add(new Tank(point));
+        }
+        return towers;
+    }
+
+    /**
+     * Finds points next to a route.
+     *
+     * @param random the source of randomness.
+     * @param route  the route.
+     * @param count  the number of points.
+     * @return the points.
+     */
+    public static Point[] besideRoute(@NotNull Random random, @NotNull Route route, int count) {
+        Point[] points = new Point[count];
+        for (int i = 0; i < count; i++) {
+            double progress = random.nextDouble() * route.getLength();
+            int segment = route.segmentAt(progress, 0);
+            double angle = random.nextDouble() * 2 * Math.PI;
+            points[i] = new Point(route.getX(segment, progress) + Math.cos(angle) * TOWER_OFFSET,
+                    route.getY(segment, progress) + Math.sin(angle) * TOWER_OFFSET);
+        }
+        return points;
+    }
+
+    // the i-th of count slicers, furthest along first
+    private static double progressOf(Random random, Route route, int i, int count) {
+        return (1 - (i + random.nextDouble()) / count) * route.getLength();
+    }
+}
@@ -0,0 +1,38 @@
+import benchmarks.Workload;
+import bagel.util.Point;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Sets off {@link Bomb}s next to the route. The slicers caught in the first blasts die, later blasts still look
+ * them up and damage them, so every run does the same queries.
+ */
+public class BombWorkload implements Workload {
+    private static final int BOMBS = 4;
+
+    private final SlicerGrid grid;
+    private final ArrayList<Bomb> bombs;
+
+    public BombWorkload(int slicers, int towers, int timescale) {
+        Route route = BenchmarkScenario.route();
+        this.grid = new SlicerGrid(BenchmarkScenario.bounds());
+        grid.rebuild(BenchmarkScenario.regularSlicers(route, slicers));
+        this.bombs = new ArrayList<>();
+        GameContext context = new GameContext();
+        for (Point point : BenchmarkScenario.besideRoute(new Random(BenchmarkScenario.SEED), route, BOMBS)) {
+            bombs.add(Bomb.drop(context, point));
+        }
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public Object run() {
+        for (Bomb bomb : bombs) {
+            bomb.explode(grid);
+        }
+        return grid;
+    }
+}
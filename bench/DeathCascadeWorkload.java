@@ -0,0 +1,41 @@
+import benchmarks.Workload;
+
+/**
+ * Moves a store in which every slicer has just died, so every dead apex slicer is replaced with the slicers it
+ * spawns, and updates the {@link Wave} they are in.
+ */
+public class DeathCascadeWorkload implements Workload {
+    private final Route route;
+    private final int slicers;
+    private final int ticks;
+    private final GameContext context;
+    private SlicerStore store;
+    private Wave wave;
+
+    public DeathCascadeWorkload(int slicers, int towers, int timescale) {
+        this.ticks = timescale;
+        this.context = new GameContext();
+        this.route = BenchmarkScenario.route();
+        this.slicers = slicers;
+    }
+
+    @Override
+    public void reset() {
+        store = BenchmarkScenario.apexSlicers(route, slicers);
+        for (int i = 0; i < store.size(); i++) {
+            store.damage(store.slotAt(i), Integer.MAX_VALUE);
+        }
+        wave = WaveWorkload.waveOf();
+    }
+
+    @Override
+    public Object run() {
+        boolean going = true;
+        for (int tick = 0; tick < ticks; tick++) {
+            context.getClock().tick();
+            store.update();
+            going = wave.update(context);
+        }
+        return going;
+    }
+}
@@ -0,0 +1,43 @@
+import benchmarks.Workload;
+
+/**
+ * Runs full ticks of level 1 with a wave in progress: indexing the slicers, updating every tower and its
+ * projectiles, then moving the wave along. The highest timescale a run keeps under {@link #TICK_TIME} is the
+ * highest timescale the game can sustain with that many slicers and towers.
+ */
+public class LevelTickWorkload implements Workload {
+    private final GameContext context;
+    private final Level level;
+    private final int slicers;
+    private final int ticks;
+
+    public LevelTickWorkload(int slicers, int towers, int timescale) {
+        this.ticks = timescale;
+        this.context = new GameContext();
+        this.level = new Level(context, 1);
+        this.slicers = slicers;
+        for (Tower tank : BenchmarkScenario.tanks(level.getRoute(), towers)) {
+            level.placeTower(tank);
+        }
+        // start the first wave and let it activate its first event
+        level.startWave();
+        level.update();
+    }
+
+    @Override
+    public void reset() {
+        context.getPlayer().resetPlayer();
+        level.getSlicers().clear();
+        BenchmarkScenario.spread(level.getSlicers(), SlicerType.REGULAR, slicers);
+    }
+
+    @Override
+    public Object run() {
+        boolean going = true;
+        for (int tick = 0; tick < ticks; tick++) {
+            context.getClock().tick();
+            going = level.update();
+        }
+        return going;
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * {@link TargetingWorkload} with the towers always prepared in parallel, on every core, see {@link TowerUpdater}.
+ */
+public class ParallelTargetingWorkload extends TargetingWorkload {
+    public ParallelTargetingWorkload(int slicers, int towers, int timescale) {
+        super(slicers, towers, timescale, 0);
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * {@link WaveWorkload} with the slicers always moved in parallel, on every core, see {@link SlicerStore#update()}.
+ */
+public class ParallelWaveWorkload extends WaveWorkload {
+    public ParallelWaveWorkload(int slicers, int towers, int timescale) {
+        super(slicers, towers, timescale, 0);
+    }
+}
@@ -0,0 +1,54 @@
+import benchmarks.Workload;
+
+/**
+ * Advances a cursor per slicer along a shared {@link Route}, the way {@link SlicerStore#update()} does every tick.
+ * Cursors that reach the end of the route start over, so every run does the same amount of work.
+ */
+public class RouteWorkload implements Workload {
+    private static final double SPEED = 2; // px/f, the speed of a regular slicer
+
+    private final Route route;
+    private final int ticks;
+    private final int[] segments;
+    private final double[] progresses;
+
+    public RouteWorkload(int slicers, int towers, int timescale) {
+        this.route = BenchmarkScenario.route();
+        this.ticks = timescale;
+        this.segments = new int[slicers];
+        this.progresses = new double[slicers];
+        for (int i = 0; i < slicers; i++) {
+            progresses[i] = route.getLength() * i / slicers;
+            segments[i] = route.segmentAt(progresses[i], 0);
+        }
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public Object run() {
+        double length = route.getLength();
+        double sum = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            sum += step(length);
+        }
+        return sum;
+    }
+
+    private double step(double length) {
+        double sum = 0;
+        for (int i = 0; i < segments.length; i++) {
+            double progress = progresses[i] + SPEED;
+            if (progress > length) {
+                progress -= length;
+            }
+            int segment = route.segmentAt(progress, segments[i]);
+            segments[i] = segment;
+            progresses[i] = progress;
+            sum += route.getX(segment, progress) + route.getY(segment, progress) + route.getHeading(segment);
+        }
+        return sum;
+    }
+}
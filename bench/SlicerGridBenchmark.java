@@ -0,0 +1,98 @@
+import bagel.util.Point;
+import bagel.util.Rectangle;
+import java.util.Random;
+
+/**
+ * Compares tower targeting and bomb blasts done with a linear scan over every slicer against the same
+ * queries answered by a {@link SlicerGrid}.
+ * <p>
+ * Slicers are spread along the route of level 1 in spawn order, i.e. the first slicer in the store is the
+ * furthest along, and towers are placed next to the route, as they would be in a game.
+ * <p>
+ * Run from the project root after compiling src/ into target/classes:
+ * <pre>
+ * javac -cp target/classes:lib/bagel.jar -d target/bench bench/SlicerGridBenchmark.java bench/BenchmarkScenario.java
+ * java -cp target/bench:target/classes:lib/bagel.jar SlicerGridBenchmark
+ * </pre>
+ */
+public class SlicerGridBenchmark {
+    private static final int[] SLICER_COUNTS = {1000, 10000, 100000};
+    private static final int TOWER_COUNT = 64;
+    private static final int BOMB_COUNT = 4;
+    private static final double TANK_RANGE = 100; // px
+    private static final double BOMB_RANGE = 210; // px
+
+    public static void main(String[] args) {
+        Route route = BenchmarkScenario.route();
+        Rectangle bounds = BenchmarkScenario.bounds();
+        System.out.printf("%8s %7s %14s %14s %8s%n", "slicers", "towers", "linear ns/tick", "grid ns/tick", "speedup");
+        for (int count : SLICER_COUNTS) {
+            Random random = new Random(BenchmarkScenario.SEED);
+            SlicerStore slicers = BenchmarkScenario.regularSlicers(route, count);
+            Point[] towers = BenchmarkScenario.besideRoute(random, route, TOWER_COUNT);
+            Point[] bombs = BenchmarkScenario.besideRoute(random, route, BOMB_COUNT);
+            SlicerGrid grid = new SlicerGrid(bounds);
+
+            // enough ticks for the largest wave to take about a second
+            int ticks = Math.max(20, 2000000 / count);
+            long checksum = 0;
+            // warm up both paths before timing them
+            for (int i = 0; i < ticks; i++) {
+                checksum += linearTick(slicers, towers, bombs) + gridTick(grid, slicers, towers, bombs);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                checksum += linearTick(slicers, towers, bombs);
+            }
+            double linear = (System.nanoTime() - start) / (double) ticks;
+            start = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                checksum += gridTick(grid, slicers, towers, bombs);
+            }
+            double indexed = (System.nanoTime() - start) / (double) ticks;
+            System.out.printf("%8d %7d %14.0f %14.0f %7.1fx%n", count, TOWER_COUNT, linear, indexed, linear / indexed);
+            if (checksum == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    // what ActiveTower and Bomb did before the grid: scan every slicer
+    private static long linearTick(SlicerStore slicers, Point[] towers, Point[] bombs) {
+        long found = 0;
+        for (Point tower : towers) {
+            for (int i = 0; i < slicers.size(); i++) {
+                int slot = slicers.slotAt(i);
+                if (tower.distanceTo(new Point(slicers.getX(slot), slicers.getY(slot))) <= TANK_RANGE) {
+                    found += slicers.getHp(slot);
+                    break;
+                }
+            }
+        }
+        for (Point bomb : bombs) {
+            for (int i = 0; i < slicers.size(); i++) {
+                int slot = slicers.slotAt(i);
+                if (bomb.distanceTo(new Point(slicers.getX(slot), slicers.getY(slot))) <= BOMB_RANGE) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static long gridTick(SlicerGrid grid, SlicerStore slicers, Point[] towers, Point[] bombs) {
+        long found = 0;
+        grid.rebuild(slicers);
+        for (Point tower : towers) {
+            int slot = grid.firstInRange(tower, TANK_RANGE);
+            if (slot != -1) {
+                found += slicers.getHp(slot);
+            }
+        }
+        long[] caught = new long[1];
+        for (Point bomb : bombs) {
+            grid.forEachInRange(bomb, BOMB_RANGE, slot -> caught[0]++);
+        }
+        return found + caught[0];
+    }
+}
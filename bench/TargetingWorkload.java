@@ -0,0 +1,48 @@
+import benchmarks.Workload;
+import bagel.util.Rectangle;
+import java.util.ArrayList;
+
+/**
+ * Updates every {@link ActiveTower} against a fixed field of slicers in a {@link SlicerGrid}, one tower after the
+ * other, see {@link ParallelTargetingWorkload} for the towers prepared in parallel.
+ */
+public class TargetingWorkload implements Workload {
+    private final Rectangle bounds;
+    private final SlicerGrid grid;
+    private final ArrayList<Tower> tanks;
+    private final TowerUpdater updater;
+    private final int ticks;
+    private final GameContext context;
+
+    public TargetingWorkload(int slicers, int towers, int timescale) {
+        this(slicers, towers, timescale, Integer.MAX_VALUE);
+    }
+
+    protected TargetingWorkload(int slicers, int towers, int timescale, int threshold) {
+        this.ticks = timescale;
+        this.context = new GameContext();
+        this.updater = new TowerUpdater(threshold);
+        Route route = BenchmarkScenario.route();
+        this.bounds = BenchmarkScenario.bounds();
+        this.grid = new SlicerGrid(bounds);
+        // apex slicers take a while to die, so the towers keep finding targets
+        grid.rebuild(BenchmarkScenario.apexSlicers(route, slicers));
+        this.tanks = BenchmarkScenario.tanks(route, towers);
+        for (Tower tank : tanks) {
+            ((ActiveTower) tank).cover(route);
+        }
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public Object run() {
+        for (int tick = 0; tick < ticks; tick++) {
+            context.getClock().tick();
+            updater.update(context, tanks, grid, bounds);
+        }
+        return tanks;
+    }
+}
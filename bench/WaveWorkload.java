@@ -0,0 +1,60 @@
+import benchmarks.Workload;
+import java.util.ArrayList;
+
+/**
+ * Moves a store of live slicers along the route and updates the {@link Wave} they are in, on one thread, see
+ * {@link ParallelWaveWorkload} for the slicers moved in parallel.
+ */
+public class WaveWorkload implements Workload {
+    // long enough that the wave never ends in a benchmark
+    private static final int DELAY = 3600000; // ms
+
+    private final Route route;
+    private final int slicers;
+    private final int ticks;
+    private final GameContext context;
+    private final int threshold;
+    private SlicerStore store;
+    private Wave wave;
+
+    public WaveWorkload(int slicers, int towers, int timescale) {
+        this(slicers, towers, timescale, Integer.MAX_VALUE);
+    }
+
+    protected WaveWorkload(int slicers, int towers, int timescale, int threshold) {
+        this.ticks = timescale;
+        this.context = new GameContext();
+        this.threshold = threshold;
+        this.route = BenchmarkScenario.route();
+        this.slicers = slicers;
+    }
+
+    @Override
+    public void reset() {
+        store = BenchmarkScenario.regularSlicers(route, slicers);
+        store.setParallelThreshold(threshold);
+        wave = waveOf();
+    }
+
+    @Override
+    public Object run() {
+        boolean going = true;
+        for (int tick = 0; tick < ticks; tick++) {
+            context.getClock().tick();
+            store.update();
+            going = wave.update(context);
+        }
+        return going;
+    }
+
+    /**
+     * Creates a wave that stays in progress, waiting on a single long delay event.
+     *
+     * @return the wave.
+     */
+    static Wave waveOf() {
+        ArrayList<WaveEvent> events = new ArrayList<>();
+        events.add(new WaveEvent(DELAY));
+        return new Wave(events);
+    }
+}
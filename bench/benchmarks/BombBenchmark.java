@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets off a few bombs next to the route and damages every slicer caught in the blasts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BombBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int slicers;
+
+    @Param({"0"})
+    public int towers;
+
+    @Param({"1"})
+    public int timescale;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workloads.create("BombWorkload", slicers, towers, timescale);
+    }
+
+    @Benchmark
+    public Object run() {
+        return workload.run();
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates a wave by one tick in which every slicer has just died, replacing each dead apex slicer with the mega
+ * slicers it spawns. The wave is rebuilt before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeathCascadeBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int slicers;
+
+    @Param({"0"})
+    public int towers;
+
+    @Param({"1"})
+    public int timescale;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workloads.create("DeathCascadeWorkload", slicers, towers, timescale);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        workload.reset();
+    }
+
+    @Benchmark
+    public Object run() {
+        return workload.run();
+    }
+}
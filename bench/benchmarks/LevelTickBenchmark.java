@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one frame of level 1 at the timescale with a wave in progress: indexing the slicers, updating every tower and
+ * its projectiles, then moving the wave along, once per tick. The slicers of the wave are replaced before every
+ * invocation.
+ * <p>
+ * A timescale is sustainable with a number of slicers and towers as long as a frame takes less than
+ * {@link Workload#TICK_TIME} ns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelTickBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int slicers;
+
+    @Param({"16", "64"})
+    public int towers;
+
+    @Param({"1", "5", "50"})
+    public int timescale;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workloads.create("LevelTickWorkload", slicers, towers, timescale);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        workload.reset();
+    }
+
+    @Benchmark
+    public Object run() {
+        return workload.run();
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates every tank for one frame at the timescale against a fixed field of slicers: finding a target in the grid, turning to it, shooting
+ * and moving the projectiles already in flight. With parallel set the towers are prepared on every core, compare the two to get the
+ * speedup, on a machine with 8 or more cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetingBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int slicers;
+
+    @Param({"16", "64", "256"})
+    public int towers;
+
+    @Param({"1", "5"})
+    public int timescale;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workloads.create(parallel ? "ParallelTargetingWorkload" : "TargetingWorkload", slicers, towers, timescale);
+    }
+
+    @Benchmark
+    public Object run() {
+        return workload.run();
+    }
+}
@@ -0,0 +1,31 @@
+package benchmarks;
+
+/**
+ * A piece of the game a benchmark measures.
+ * <p>
+ * The game lives in the default package, which code in a package cannot refer to, and JMH only runs benchmarks that
+ * are in a package. Each workload is a class in the default package that drives the game, the benchmarks only see
+ * it through this interface. Every workload has a public constructor taking the number of slicers, the number of
+ * towers and the timescale, in that order, which sets up the game.
+ * <p>
+ * A run is one frame at the timescale, i.e. as many ticks as the timescale. A timescale can be kept up with as long
+ * as a run takes less than {@link #TICK_TIME} ns.
+ */
+public interface Workload {
+    /**
+     * The length of a tick of the game, in ns.
+     */
+    long TICK_TIME = 1000000000L / 120;
+
+    /**
+     * Puts the game back in the state every run starts from. Does nothing for workloads that do not change it.
+     */
+    void reset();
+
+    /**
+     * Runs the measured code for one frame.
+     *
+     * @return a result of the work done, to be consumed by the benchmark.
+     */
+    Object run();
+}
@@ -0,0 +1,32 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Creates {@link Workload}s from the default package by name.
+ */
+public final class Workloads {
+    private Workloads() {
+    }
+
+    /**
+     * Creates a workload.
+     *
+     * @param name      the name of the workload class, in the default package.
+     * @param slicers   the number of slicers.
+     * @param towers    the number of towers.
+     * @param timescale the timescale.
+     * @return the workload.
+     */
+    public static Workload create(String name, int slicers, int towers, int timescale) {
+        try {
+            return (Workload) Class.forName(name)
+                    .getConstructor(int.class, int.class, int.class)
+                    .newInstance(slicers, towers, timescale);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("cannot set up workload " + name, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("no workload " + name, e);
+        }
+    }
+}
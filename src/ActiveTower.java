@@ -1,108 +1,259 @@
-import bagel.Drawing;
-import bagel.Image;
-import bagel.Input;
-import bagel.util.Colour;
 import bagel.util.Point;
+import bagel.util.Rectangle;
 import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
- * Active Towers are stationary towers that shoot bullets at enemies in range.
+ * Active Towers are stationary towers that shoot bullets at enemies in range. Which enemy in range is shot at is up
+ * to the {@link TargetingPolicy} of the type of tower.
+ * <p>
+ * A tower aims and moves its projectiles in {@link #prepare(SlicerGrid)}, which only reads the slicers, and deals the
+ * damage and shoots in {@link #update(GameContext, SlicerGrid, Rectangle)}, see {@link TowerUpdater}.
  */
 public abstract class ActiveTower extends Tower {
     private int range; // px
-    private Timer cooldownTimer;
+    private int cooldown; // ms
     private boolean isReady;
     private ArrayList<Projectile> projectiles;
+    // projectiles that hit in prepare, given back to their pool in update
+    private ArrayList<Projectile> spent;
+    // what the projectiles did in prepare, applied in update
+    private final DamageBuffer hits;
+    // slot of the enemy picked in prepare, or -1
+    private int target;
     private int projectileID;
+    private TargetingPolicy policy;
+    // stretches of the route in range, see Route.coverage, null until the tower is placed
+    private double[] coverage;
+    private final Runnable reload;
+    // the end of the cooldown, null if the tower has not shot
+    private TimingWheel.Timeout reloading;
 
     /**
      * Instantiates a new Active tower.
      *
      * @param location     the location of the tower.
-     * @param image        the image of the tower.
+     * @param imageSrc     the image of the tower.
      * @param range        the range of the tower.
      * @param cooldown     the fire cooldown of the tower.
      * @param projectileID the {@link Projectile} the tower uses, in the form of its ID.
+     * @param policy       how the tower picks which enemy in range to shoot at.
      */
-    public ActiveTower(Point location, Image image, int range, int cooldown, int projectileID) {
-        super(location, image);
+    public ActiveTower(Point location, String imageSrc, int range, int cooldown, int projectileID,
+                       TargetingPolicy policy) {
+        super(location, imageSrc);
         this.projectiles = new ArrayList<>();
+        this.spent = new ArrayList<>();
+        this.hits = new DamageBuffer();
+        this.target = -1;
         this.range = range;
-        this.cooldownTimer = new Timer(cooldown);
+        this.cooldown = cooldown;
         this.isReady = true;
         this.projectileID = projectileID;
+        this.policy = policy;
+        this.coverage = null;
+        this.reload = this::reload;
+        this.reloading = null;
     }
 
     @Override
-    public void update(Input input, ArrayList<Slicer> slicers) {
-        if(!isReady){
-            if(cooldownTimer.tick()){
-                isReady = true;
+    public void prepare(SlicerGrid slicers) {
+        target = -1;
+        if(!slicers.isEmpty() && coverage != null){
+            // only the enemy the policy picks matters, it is faced and shot at
+            target = policy.select(slicers.getSlicers().getIndex(), coverage);
+            if(target != -1){
+                face(slicers.getSlicers(), target);
             }
         }
-        boolean adjusted = false; // if orientation has been adjusted this update
-        if(!slicers.isEmpty()){
-            for (Slicer slicer: slicers) {
-                // showRange(slicer);
-                if(inRange(slicer)){
-                    // adjust orientation to the first enemy in range
-                    if(!adjusted){
-                        super.getOrientation().facing(super.getPosition(), slicer.getPosition());
-                        adjusted = true;
-                    }
-
-                    // check cd and shoot
-                    if (isReady){
-                        shoot(slicer);
-                        isReady = false;
-                        break;
-                    }
+        updateProjectiles();
+    }
+
+    @Override
+    public void update(GameContext context, SlicerGrid slicers, Rectangle bounds) {
+        SlicerStore store = slicers.getSlicers();
+        // what the projectiles did while the towers were prepared
+        if(store != null){
+            hits.apply(store);
+        }
+        for (Projectile projectile: spent) {
+            projectile.release();
+        }
+        spent.clear();
+
+        // check cd and shoot
+        if(isReady && target != -1){
+            ProgressIndex index = store.getIndex();
+            // the towers before this one may have killed or doomed the target since it was picked
+            if(index.hpLeft(target) == 0){
+                target = policy.select(index, coverage);
+                if(target != -1){
+                    face(store, target);
+                }
+            }
+            if(target != -1){
+                Projectile projectile = shoot(context, slicers, store.handleOf(target));
+                isReady = false;
+                // ready again once the cooldown is over
+                reloading = context.getClock().schedule(cooldown, reload);
+                // a projectile flies on the tick it is fired
+                if(projectile.update(hits)){
+                    projectiles.remove(projectiles.size() - 1);
+                    projectile.release();
                 }
+                hits.apply(store);
             }
         }
-        updateProjectiles(input);
     }
 
     /**
-     * Checks whether a slicer is in the tower's firing range.
+     * Works out the stretches of a route that are in the tower's firing range, called when the tower is placed.
+     * Towers never move afterwards, so targeting only ever looks at slicers on those stretches. A tower that has
+     * not been placed shoots at nothing.
+     *
+     * @param route the route of the level the tower is placed in.
+     */
+    public void cover(@NotNull Route route){
+        this.coverage = route.coverage(super.getPosition(), this.range);
+    }
+
+    /**
+     * Gets the stretches of the route that are in the tower's firing range.
+     *
+     * @return the stretches, as start and end distance pairs, see {@link Route#coverage}, or null if the tower has
+     * not been placed.
+     */
+    public double[] getCoverage(){
+        return coverage;
+    }
+
+    /**
+     * Gets the firing range of the tower.
+     *
+     * @return the range, in px.
+     */
+    public int getRange() {
+        return range;
+    }
+
+    /**
+     * Gets how the tower picks which enemy in range to shoot at.
      *
-     * @param slicer the slicer to be checked
-     * @return true if it is in range, false if otherwise.
+     * @return the targeting policy.
      */
-    public boolean inRange(@NotNull Slicer slicer){
-        return super.getPosition().distanceTo(slicer.getPosition()) <= this.range;
+    public TargetingPolicy getPolicy() {
+        return policy;
     }
 
-    private void shoot(Slicer slicer){
-        if(projectileID == TankProjectile.PROJECTILE_ID){
-            projectiles.add(new TankProjectile(super.getPosition(),slicer));
+    /**
+     * Checks whether a slicer is in the tower's firing range, i.e. on a stretch of the route the tower covers.
+     *
+     * @param slicers the slicers on the map.
+     * @param slot    the slot of the slicer to be checked.
+     * @return true if it is in range, false if otherwise or if the tower has not been placed.
+     */
+    public boolean inRange(@NotNull SlicerStore slicers, int slot){
+        if(coverage == null){
+            return false;
         }
-        if(projectileID == SuperTankProjectile.PROJECTILE_ID){
-            projectiles.add(new SuperTankProjectile(super.getPosition(),slicer));
+        double progress = slicers.getProgress(slot);
+        for (int i = 0; i < coverage.length; i += 2) {
+            if (coverage[i] <= progress && progress <= coverage[i + 1]){
+                return true;
+            }
         }
+        return false;
     }
 
-    // for debugging purposes
-    private void showRange(Slicer slicer){
-        super.drawRectangle();
-        if(inRange(slicer)){
-            Drawing.drawLine(super.getPosition(), slicer.getPosition(), 3, Colour.RED);
+    /**
+     * {@inheritDoc} An active tower also writes whether it is reloading and its projectiles in flight. Taken between
+     * ticks, there is no damage waiting to be dealt.
+     */
+    @Override
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        super.save(out);
+        out.writeBoolean(isReady);
+        out.writeTimeout(reloading);
+        out.writeInt(projectiles.size());
+        for (Projectile projectile: projectiles) {
+            projectile.save(out);
         }
     }
 
-    // updates all the projectiles that belong to this tower
-    private void updateProjectiles(Input input){
-        ArrayList<Projectile> temp = new ArrayList<>();
+    @Override
+    public void release() {
         for (Projectile projectile: projectiles) {
-            if(!projectile.update(input)){
-                temp.add(projectile);
-            }
+            projectile.release();
+        }
+        for (Projectile projectile: spent) {
+            projectile.release();
         }
         projectiles.clear();
-        projectiles.addAll(temp);
-        temp.clear();
+        spent.clear();
+    }
 
-        super.update(input);
+    @Override
+    public void restore(@NotNull SnapshotReader in, @NotNull GameContext context, @NotNull SlicerGrid slicers)
+            throws IOException {
+        super.restore(in, context, slicers);
+        isReady = in.readBoolean();
+        reloading = in.readTimeout(context.getClock(), reload);
+        int count = in.readCount(Integer.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            Point position = new Point(in.readDouble(), in.readDouble());
+            int target = in.readInt();
+            if(projectileID == SuperTankProjectile.PROJECTILE_ID){
+                projectiles.add(SuperTankProjectile.restore(context, position, slicers, target));
+            }
+            else{
+                projectiles.add(TankProjectile.restore(context, position, slicers, target));
+            }
+        }
+    }
+
+    private Projectile shoot(GameContext context, SlicerGrid slicers, int target){
+        Projectile projectile;
+        if(projectileID == SuperTankProjectile.PROJECTILE_ID){
+            projectile = SuperTankProjectile.fire(context, super.getPosition(), slicers, target);
+        }
+        else{
+            projectile = TankProjectile.fire(context, super.getPosition(), slicers, target);
+        }
+        projectiles.add(projectile);
+        return projectile;
+    }
+
+    private void face(SlicerStore slicers, int slot){
+        super.getOrientation().facing(super.getPosition(), new Point(slicers.getX(slot), slicers.getY(slot)));
+    }
+
+    private void reload(){
+        isReady = true;
+    }
+
+    /**
+     * Gets the projectiles fired by the tower that are still in flight.
+     *
+     * @return the projectiles.
+     */
+    public ArrayList<Projectile> getProjectiles() {
+        return projectiles;
+    }
+
+    // updates all the projectiles that belong to this tower, the ones that hit are set aside for their pool
+    private void updateProjectiles(){
+        int kept = 0;
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
+            if(projectile.update(hits)){
+                spent.add(projectile);
+            }
+            else {
+                projectiles.set(kept++, projectile);
+            }
+        }
+        // drop the ones that hit, in place
+        projectiles.subList(kept, projectiles.size()).clear();
     }
 }
@@ -0,0 +1,115 @@
+import bagel.Font;
+import bagel.Image;
+import java.util.HashMap;
+
+/**
+ * Process-wide registry of {@link Image}s and {@link Font}s.
+ * <p>
+ * Every image is loaded once per path and every font once per path and size, everything that asks for the same
+ * resource afterwards gets the same instance. Keeps count of how often a resource was already loaded (a hit) or had
+ * to be loaded (a miss), and an estimate of how much texture memory is resident.
+ * <p>
+ * Resources need a window to be loaded, so the registry must only be used from the thread that renders.
+ */
+public final class Assets {
+    // bytes per pixel of a loaded texture, images are uploaded as RGBA
+    private static final int BYTES_PER_PIXEL = 4;
+    // fonts bake the printable ASCII characters into one single channel atlas
+    private static final int FONT_CHARS = 96;
+
+    private static final HashMap<String, Image> images = new HashMap<>();
+    private static final HashMap<String, Font> fonts = new HashMap<>();
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long residentBytes = 0;
+
+    private Assets() {
+    }
+
+    /**
+     * Gets the image at a given path, loading it if it has not been loaded before.
+     *
+     * @param src the path of the image.
+     * @return the shared image.
+     */
+    public static Image getImage(String src) {
+        Image image = images.get(src);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        image = new Image(src);
+        images.put(src, image);
+        residentBytes += (long) (image.getWidth() * image.getHeight()) * BYTES_PER_PIXEL;
+        return image;
+    }
+
+    /**
+     * Gets the font at a given path and size, loading it if it has not been loaded before.
+     *
+     * @param src  the path of the font file.
+     * @param size the size of the font, in px.
+     * @return the shared font.
+     */
+    public static Font getFont(String src, int size) {
+        String key = src + "@" + size;
+        Font font = fonts.get(key);
+        if (font != null) {
+            hits++;
+            return font;
+        }
+        misses++;
+        font = new Font(src, size);
+        fonts.put(key, font);
+        residentBytes += fontAtlasBytes(size);
+        return font;
+    }
+
+    /**
+     * Gets the number of requests that were served by an already loaded resource.
+     *
+     * @return the number of hits.
+     */
+    public static long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of requests that had to load a resource.
+     *
+     * @return the number of misses.
+     */
+    public static long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets an estimate of the texture memory used by every loaded resource.
+     *
+     * @return the number of bytes.
+     */
+    public static long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Summarises the state of the registry in one line, for logging.
+     *
+     * @return the summary.
+     */
+    public static String report() {
+        return "assets: " + images.size() + " images, " + fonts.size() + " fonts, " + hits + " hits, "
+                + misses + " misses, ~" + residentBytes / 1024 + " KiB of textures";
+    }
+
+    // the atlas is a power of two square big enough for every character at the given size
+    private static long fontAtlasBytes(int size) {
+        long area = (long) size * size * FONT_CHARS;
+        long side = 1;
+        while (side * side < area) {
+            side *= 2;
+        }
+        return side * side;
+    }
+}
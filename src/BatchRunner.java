@@ -0,0 +1,259 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays games of Shadow Defend without a window, one per {@link TowerLayout}, as fast as the machine allows, and
+ * reports how each went. Used to tune waves and layouts without playing them by hand.
+ * <p>
+ * Every game is a {@link Simulation} of its own, so the games run on a pool of threads, one game per thread at a time.
+ * A game places the towers of its layout at the start of each Level and starts every wave as soon as the last one
+ * is over, until the player wins or loses.
+ * <p>
+ * Usage: {@code java BatchRunner [options] layout...}, run from the project root, where the resources are. Options:
+ * <ul>
+ *     <li>{@code --threads n} the number of games played at once, every core by default.</li>
+ *     <li>{@code --format csv|json} how the results are written, csv by default.</li>
+ *     <li>{@code --levels n} the number of Levels played, {@link Simulation#MAX_LEVEL} by default.</li>
+ *     <li>{@code --max-ticks n} the most ticks a game is played for before it is given up on.</li>
+ * </ul>
+ * The results are written to standard output in the order of the layouts, one line per game. The games are played
+ * {@link GameContext#setVerbose(boolean) quiet}, so nothing else is printed.
+ */
+public class BatchRunner {
+    private static final int DEFAULT_MAX_TICKS = 10000000;
+    private static final String CSV_HEADER =
+            "layout,result,level,wave,hp,money,leaks,towers,skipped,ticks,ms,ticks_per_sec";
+
+    private final int levels;
+    private final long maxTicks;
+
+    /**
+     * Instantiates a new BatchRunner.
+     *
+     * @param levels   the number of Levels every game is played for.
+     * @param maxTicks the most ticks a game is played for.
+     */
+    public BatchRunner(int levels, long maxTicks) {
+        this.levels = levels;
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Plays a game with a layout, on the calling thread.
+     *
+     * @param layout the towers placed in the game.
+     * @return how the game went.
+     */
+    public Result play(@NotNull TowerLayout layout) {
+        long start = System.nanoTime();
+        // the game keeps quiet, only how it went is wanted
+        GameContext context = new GameContext();
+        context.setVerbose(false);
+        Simulation simulation = new Simulation(context, levels);
+        Level placed = null;
+        int towers = 0;
+        int skipped = 0;
+        long ticks = 0;
+        while (!simulation.isOver() && ticks < maxTicks) {
+            simulation.update();
+            ticks++;
+            Level level = simulation.getActiveLevel();
+            if (level == null) {
+                continue;
+            }
+            // the towers go down as soon as a Level starts
+            if (level != placed) {
+                placed = level;
+                towers += layout.size(level.getLv());
+                skipped += layout.place(simulation, level.getLv());
+            }
+            if (!level.isWaveInProgress()) {
+                simulation.startWave();
+            }
+        }
+        Level level = simulation.getActiveLevel();
+        Player player = simulation.getContext().getPlayer();
+        String outcome = simulation.isWon() ? "won" : simulation.isLost() ? "lost" : "timeout";
+        return new Result(layout.getName(), outcome, level == null ? 0 : level.getLv(),
+                level == null ? 0 : level.getWaveNumber(), player.getHP(), player.getMoney(),
+                simulation.getLeakCount(), towers, skipped, ticks, System.nanoTime() - start);
+    }
+
+    /**
+     * Plays a game per layout on a pool of threads and writes the result of each, in the order of the layouts, as
+     * soon as it and the ones before it are done.
+     *
+     * @param layouts the layouts.
+     * @param threads the number of games played at once.
+     * @param json    true to write the results as a JSON array, false to write them as CSV.
+     * @param out     where the results are written.
+     * @throws InterruptedException if the thread is interrupted while waiting for a game.
+     * @throws ExecutionException   if a game fails.
+     */
+    public void playAll(@NotNull ArrayList<TowerLayout> layouts, int threads, boolean json, @NotNull PrintStream out)
+            throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<Result>> results = new ArrayList<>();
+            for (TowerLayout layout : layouts) {
+                results.add(pool.submit(() -> play(layout)));
+            }
+            out.println(json ? "[" : CSV_HEADER);
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i).get();
+                if (json) {
+                    out.println("  " + result.toJson() + (i < results.size() - 1 ? "," : ""));
+                }
+                else {
+                    out.println(result.toCsv());
+                }
+                out.flush();
+            }
+            if (json) {
+                out.println("]");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Entry point of the batch runner, see the class description for usage.
+     *
+     * @param args the options followed by the paths of the layouts.
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean json = false;
+        int levels = Simulation.MAX_LEVEL;
+        long maxTicks = DEFAULT_MAX_TICKS;
+        ArrayList<TowerLayout> layouts = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--format":
+                        json = "json".equals(args[++i]);
+                        break;
+                    case "--levels":
+                        levels = Integer.parseInt(args[++i]);
+                        break;
+                    case "--max-ticks":
+                        maxTicks = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        layouts.add(TowerLayout.load(args[i]));
+                        break;
+                }
+            }
+        } catch (FileNotFoundException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("error: " + e.getMessage());
+            layouts.clear();
+        }
+        if (layouts.isEmpty() || threads < 1) {
+            System.err.println("usage: java BatchRunner [--threads n] [--format csv|json] [--levels n] "
+                    + "[--max-ticks n] layout...");
+            System.exit(2);
+        }
+
+        try {
+            new BatchRunner(levels, maxTicks).playAll(layouts, threads, json, System.out);
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * How a game played by a {@link BatchRunner} went.
+     */
+    public static class Result {
+        private final String layout;
+        private final String outcome;
+        private final int level;
+        private final int wave;
+        private final int hp;
+        private final int money;
+        private final int leaks;
+        private final int towers;
+        private final int skipped;
+        private final long ticks;
+        private final long nanos;
+
+        private Result(String layout, String outcome, int level, int wave, int hp, int money, int leaks, int towers,
+                       int skipped, long ticks, long nanos) {
+            this.layout = layout;
+            this.outcome = outcome;
+            this.level = level;
+            this.wave = wave;
+            this.hp = hp;
+            this.money = money;
+            this.leaks = leaks;
+            this.towers = towers;
+            this.skipped = skipped;
+            this.ticks = ticks;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Gets how the game ended.
+         *
+         * @return "won", "lost", or "timeout" if it was given up on.
+         */
+        public String getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Gets the number of ticks simulated per second of real time.
+         *
+         * @return the ticks per second.
+         */
+        public double getTicksPerSecond() {
+            return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+        }
+
+        /**
+         * Formats the result as a line of CSV, in the order of the header.
+         *
+         * @return the line.
+         */
+        public String toCsv() {
+            return csvField(layout) + "," + outcome + "," + level + "," + wave + "," + hp + "," + money + ","
+                    + leaks + "," + towers + "," + skipped + "," + ticks + "," + nanos / 1000000 + ","
+                    + Math.round(getTicksPerSecond());
+        }
+
+        /**
+         * Formats the result as a JSON object, on one line.
+         *
+         * @return the object.
+         */
+        public String toJson() {
+            return "{\"layout\": " + jsonString(layout) + ", \"result\": \"" + outcome + "\", \"level\": " + level
+                    + ", \"wave\": " + wave + ", \"hp\": " + hp + ", \"money\": " + money + ", \"leaks\": " + leaks
+                    + ", \"towers\": " + towers + ", \"skipped\": " + skipped + ", \"ticks\": " + ticks
+                    + ", \"ms\": " + nanos / 1000000 + ", \"ticks_per_sec\": " + Math.round(getTicksPerSecond())
+                    + "}";
+        }
+
+        private static String csvField(String value) {
+            if (value.contains(",") || value.contains("\"")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+
+        private static String jsonString(String value) {
+            return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+    }
+}
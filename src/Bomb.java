@@ -1,58 +1,122 @@
-import bagel.Image;
 import bagel.util.Point;
 import org.jetbrains.annotations.NotNull;
-
-import java.util.ArrayList;
+import java.io.IOException;
 
 /**
  * A type of artifacts spawned by {@link Airplane}s, explodes after 2 seconds and
- * dealing damage to nearby {@link Slicer}s.
+ * dealing damage to nearby slicers.
+ * <p>
+ * Bombs are taken from the {@link Pool} of the game when dropped and given back once they have exploded.
  */
 public class Bomb extends Sprite{
     private static final String IMG_SRC = "res/images/explosive.png";
     private static final int DEFAULT_DAMAGE = 500;
     private static final int DEFAULT_RANGE = 200; // px
     private static final int DEFAULT_COOLDOWN = 2000; //ms
-    private Timer timer;
+    private final Runnable burnFuse;
+    private Pool<Bomb> pool;
+    private boolean fuseBurnt;
+    private TimingWheel.Timeout fuse;
+
+    private Bomb() {
+        super(new Point(0, 0), IMG_SRC);
+        this.burnFuse = this::burnFuse;
+    }
 
     /**
-     * Instantiates a new Bomb.
+     * Creates an empty pool for bombs, every game has its own.
      *
+     * @return the pool.
+     */
+    public static Pool<Bomb> newPool() {
+        return new Pool<>("bomb", Bomb::new);
+    }
+
+    /**
+     * Drops a bomb, reusing one from the pool of the game if there is one. It explodes once its fuse has burnt.
+     *
+     * @param context  the game the bomb is dropped in.
      * @param location the location of the bomb.
+     * @return the bomb.
+     */
+    public static Bomb drop(GameContext context, Point location) {
+        Bomb bomb = context.getBombs().acquire();
+        bomb.pool = context.getBombs();
+        bomb.teleport(location);
+        bomb.fuseBurnt = false;
+        bomb.fuse = context.getClock().schedule(DEFAULT_COOLDOWN, bomb.burnFuse);
+        return bomb;
+    }
+
+    /**
+     * Puts a bomb written by {@link #save(SnapshotWriter)} back on the map, reusing one from the pool of the game if
+     * there is one, with its fuse as far burnt as it was.
+     *
+     * @param in      where the bomb is read from.
+     * @param context the game the bomb is in, with its clock at the tick the snapshot was taken on.
+     * @return the bomb.
+     * @throws IOException if it cannot be read.
      */
-    public Bomb(Point location) {
-        super(location, new Image(IMG_SRC));
-        this.timer = new Timer(DEFAULT_COOLDOWN);
+    public static Bomb restore(@NotNull SnapshotReader in, @NotNull GameContext context) throws IOException {
+        Bomb bomb = context.getBombs().acquire();
+        bomb.pool = context.getBombs();
+        bomb.teleport(new Point(in.readDouble(), in.readDouble()));
+        bomb.fuseBurnt = in.readBoolean();
+        bomb.fuse = in.readTimeout(context.getClock(), bomb.burnFuse);
+        return bomb;
+    }
 
+    /**
+     * Writes where the bomb is and how far its fuse has burnt to a {@link Snapshot}.
+     *
+     * @param out where the bomb is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeDouble(super.getPosition().x);
+        out.writeDouble(super.getPosition().y);
+        out.writeBoolean(fuseBurnt);
+        out.writeTimeout(fuse);
     }
 
     /**
-     * Renders the bomb and goes through its countdown logic.
+     * Gives the bomb back to the pool once it has exploded, it must not be used afterwards.
+     */
+    public void release() {
+        pool.release(this);
+    }
+
+    /**
+     * Goes through the bomb's countdown logic.
      *
-     * @param allSlicers an array list of every active {@link Slicer} in the {@link Level}.
+     * @param context    the game the bomb is in.
+     * @param allSlicers every active slicer in the {@link Level}.
      * @return true if the bomb is still on the map, false if it has exploded.
      */
     // returns true if still on the map, false if exploded
-    public boolean update(ArrayList<Slicer> allSlicers){
-        super.render();
-//        drawRectangle();
-        System.out.println("updating bomb");
-        if(timer.tick()){
-            System.out.println("boom");
+    public boolean update(GameContext context, SlicerGrid allSlicers){
+        if(fuseBurnt){
+            context.log("boom");
             explode(allSlicers);
             return false;
         }
         return true;
     }
 
-    private void explode(@NotNull ArrayList<Slicer> allSlicers){
-        for (Slicer slicer: allSlicers) {
-            // 10 is hitbox size of slicers
-            if(slicer.getPosition().distanceTo(super.getPosition()) <= DEFAULT_RANGE + 10){
-                slicer.damageSelf(DEFAULT_DAMAGE);
-            }
-        }
+    private void burnFuse(){
+        fuseBurnt = true;
+    }
 
+    /**
+     * Explodes the bomb, dealing damage to every slicer in range.
+     *
+     * @param allSlicers every active slicer in the {@link Level}.
+     */
+    public void explode(@NotNull SlicerGrid allSlicers){
+        SlicerStore store = allSlicers.getSlicers();
+        // 10 is hitbox size of slicers
+        allSlicers.forEachInRange(super.getPosition(), DEFAULT_RANGE + 10,
+                slot -> store.damage(slot, DEFAULT_DAMAGE));
     }
 }
 
@@ -6,12 +6,14 @@ import bagel.util.Point;
 /**
  * A panel that renders at the top of the screen, showing the shop, information of key binds, and the player's money.
  *
- * Is singleton.
+ * Belongs to the {@link ShadowDefend} that draws it.
  */
-// singleton
 public class BuyPanel extends Sprite {
-    private static BuyPanel panel;
     private static final String BACKGROUND_IMAGE_SRC = "res/images/buypanel.png";
+    private static final String FONT_SRC = "res/fonts/DejaVuSans-Bold.ttf";
+    private static final int PRICE_FONT_SIZE = 20;
+    private static final int KEY_FONT_SIZE = 15;
+    private static final int MONEY_FONT_SIZE = 40;
     // for rendering towers
     private static final int NUMBER_OF_TOWERS = 3;
     private static final int LEFT_OFFSET = 64; //px
@@ -33,34 +35,35 @@ public class BuyPanel extends Sprite {
 
     // purchasable towers           : Tank
     private Tower[] towers;
+    private final Player player;
+    // looked up once, every frame draws with them
+    private final Font priceFont;
+    private final Font keyFont;
+    private final Font moneyFont;
 
-    // initialising the buy panel
-    private BuyPanel() {
-        super(new Point(new Image(BACKGROUND_IMAGE_SRC).getWidth() / 2,
-                new Image(BACKGROUND_IMAGE_SRC).getHeight() / 2) ,
-                new Image(BACKGROUND_IMAGE_SRC));
+    /**
+     * Instantiates a new BuyPanel, once the window has been created.
+     *
+     * @param player the player who buys the towers.
+     */
+    public BuyPanel(Player player) {
+        super(new Point(Assets.getImage(BACKGROUND_IMAGE_SRC).getWidth() / 2,
+                Assets.getImage(BACKGROUND_IMAGE_SRC).getHeight() / 2) ,
+                Assets.getImage(BACKGROUND_IMAGE_SRC));
 
-        Image img = new Image(BACKGROUND_IMAGE_SRC);
+        Image img = Assets.getImage(BACKGROUND_IMAGE_SRC);
         Point center = new Point(img.getWidth() / 2, img.getHeight() / 2);
 
+        this.player = player;
+        this.priceFont = Assets.getFont(FONT_SRC, PRICE_FONT_SIZE);
+        this.keyFont = Assets.getFont(FONT_SRC, KEY_FONT_SIZE);
+        this.moneyFont = Assets.getFont(FONT_SRC, MONEY_FONT_SIZE);
         this.towers = new Tower[NUMBER_OF_TOWERS];
         towers[0] = new Tank(new Point(LEFT_OFFSET, center.y - CENTER_TOP_OFFSET));
         towers[1] = new SuperTank(new Point(LEFT_OFFSET + HORIZONTAL_GAP, center.y - CENTER_TOP_OFFSET));
         towers[2] = new Airplane(new Point(LEFT_OFFSET + HORIZONTAL_GAP * 2, center.y - CENTER_TOP_OFFSET));
     }
 
-    /**
-     * Get the instance of the buy panel.
-     *
-     * @return the instance of the buy panel
-     */
-    public static BuyPanel getPanel(){
-        if(panel == null){
-            panel = new BuyPanel();
-        }
-        return panel;
-    }
-
     /**
      * Renders all the images and texts, checks the player's interaction with the shop.
      *
@@ -83,7 +86,6 @@ public class BuyPanel extends Sprite {
         // if mouse cursor is in the panel
         Point cursor = new Point(input.getMouseX(), input.getMouseY());
         if(super.getRect().intersects(cursor)){
-            Player player = Player.getPlayer();
             // checking which tower the cursor is on
             for (int i = 0; i < towers.length; i++) {
                 Tower tower = towers[i];
@@ -112,14 +114,13 @@ public class BuyPanel extends Sprite {
 
     // shows the price of towers
     private void renderPrice(){
-        Font priceFont = new Font("res/fonts/DejaVuSans-Bold.ttf", 20);
         for (int i = 0; i < NUMBER_OF_TOWERS; i++) {
             Tower tower = towers[i];
             Point position = tower.getPosition();
             int price = tower.getPrice();
             DrawOptions colour = new DrawOptions().setBlendColour(PRICE_COLOUR_YES);
             // text is red if tower cannot be afforded
-            if (price > Player.getPlayer().getMoney()){
+            if (price > player.getMoney()){
                 colour.setBlendColour(PRICE_COLOUR_NO);
             }
             priceFont.drawString("$" + price, position.x - PRICE_RIGHT_OFFSET,
@@ -129,7 +130,6 @@ public class BuyPanel extends Sprite {
 
     // shows the key binds
     private void renderKeyBinds(){
-        Font keyFont = new Font("res/fonts/DejaVuSans-Bold.ttf", 15);
         double x = getRect().centre().x - KEY_CENTER_LEFT_OFFSET;
         double y = KEY_TOP_OFFSET;
         // number of keys = 3
@@ -147,7 +147,6 @@ public class BuyPanel extends Sprite {
 
     // shows the amount of money the player has
     private void renderMoney(){
-        Font moneyFont = new Font("res/fonts/DejaVuSans-Bold.ttf", 40);
-        moneyFont.drawString("$" + Player.getPlayer().getMoney(), Window.getWidth() - MONEY_RIGHT_OFFSET, MONEY_TOP_OFFSET);
+        moneyFont.drawString("$" + player.getMoney(), Window.getWidth() - MONEY_RIGHT_OFFSET, MONEY_TOP_OFFSET);
     }
 }
@@ -0,0 +1,135 @@
+import org.jetbrains.annotations.NotNull;
+import java.util.Arrays;
+
+/**
+ * What a tower's projectiles do to the slicers in a tick, written down instead of done, so that the towers can work
+ * out their moves at the same time without touching the {@link SlicerStore}.
+ * <p>
+ * Every {@link ActiveTower} has its own buffer. The projectiles write to it while the towers update in parallel, see
+ * {@link TowerUpdater}, and it is applied to the store afterwards, tower by tower in the order they were placed, so
+ * the slicers end up the same whichever thread updated which tower.
+ */
+public class DamageBuffer {
+    private static final int COMMIT = 0;
+    private static final int WITHDRAW = 1;
+    private static final int HIT = 2;
+    private static final int INITIAL_CAPACITY = 8;
+
+    // kind, handle and damage of every entry, one after the other
+    private int[] entries;
+    private int size;
+
+    /**
+     * Instantiates a new, empty DamageBuffer.
+     */
+    public DamageBuffer() {
+        this.entries = new int[3 * INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Writes down that a projectile is in flight at a slicer, see {@link SlicerStore#commitDamage(int, int)}.
+     *
+     * @param handle the handle of the slicer.
+     * @param damage the damage the projectile will deal.
+     */
+    public void commit(int handle, int damage) {
+        add(COMMIT, handle, damage);
+    }
+
+    /**
+     * Writes down that a projectile has given up on a slicer, see {@link SlicerStore#withdrawDamage(int, int)}.
+     *
+     * @param handle the handle of the slicer.
+     * @param damage the damage that was committed.
+     */
+    public void withdraw(int handle, int damage) {
+        add(WITHDRAW, handle, damage);
+    }
+
+    /**
+     * Writes down that a projectile has hit a slicer, the damage it committed is withdrawn and dealt.
+     *
+     * @param handle the handle of the slicer.
+     * @param damage the damage of the projectile.
+     */
+    public void hit(int handle, int damage) {
+        add(HIT, handle, damage);
+    }
+
+    /**
+     * Adds up the damage written down as committed to a slicer and not withdrawn since, what applying the buffer
+     * would add to its pending damage. A hit leaves the slicer as close to dying as it was, so it does not count.
+     * Takes O(n) in the number of entries, which is the few projectiles of one tower.
+     *
+     * @param handle the handle of the slicer.
+     * @return the damage, negative if more is withdrawn than committed.
+     */
+    public int getCommittedDamage(int handle) {
+        int damage = 0;
+        for (int i = 0; i < 3 * size; i += 3) {
+            if (entries[i + 1] != handle) {
+                continue;
+            }
+            if (entries[i] == COMMIT) {
+                damage += entries[i + 2];
+            }
+            else if (entries[i] == WITHDRAW) {
+                damage -= entries[i + 2];
+            }
+        }
+        return damage;
+    }
+
+    /**
+     * Checks if nothing has been written down.
+     *
+     * @return true if the buffer is empty, false if otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Does everything written down to the slicers, in the order it was written, and empties the buffer. A slicer
+     * killed by an earlier entry takes no more damage, rewards are added up by the store as usual.
+     *
+     * @param slicers the slicers on the map.
+     */
+    public void apply(@NotNull SlicerStore slicers) {
+        for (int i = 0; i < 3 * size; i += 3) {
+            int handle = entries[i + 1];
+            int damage = entries[i + 2];
+            switch (entries[i]) {
+                case COMMIT:
+                    slicers.commitDamage(handle, damage);
+                    break;
+                case WITHDRAW:
+                    slicers.withdrawDamage(handle, damage);
+                    break;
+                default:
+                    slicers.withdrawDamage(handle, damage);
+                    slicers.damage(SlicerStore.slotOf(handle), damage);
+                    break;
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Empties the buffer without doing anything.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void add(int kind, int handle, int damage) {
+        if (3 * size == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[3 * size] = kind;
+        entries[3 * size + 1] = handle;
+        entries[3 * size + 2] = damage;
+        size++;
+    }
+}
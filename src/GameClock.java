@@ -0,0 +1,95 @@
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The clock of a game. Counts the ticks the {@link Simulation} has run and runs scheduled tasks when they are due.
+ * Every game has its own, see {@link GameContext}.
+ * <p>
+ * Anything that waits, a tower reloading, a bomb's fuse, the interval between spawns, a delay between
+ * {@link WaveEvent}s, schedules a task in the clock's {@link TimingWheel} instead of counting down every tick.
+ * Times are in game time, so a change of the {@link Timescale} does not affect anything scheduled.
+ */
+public class GameClock {
+    private final TimingWheel wheel;
+
+    /**
+     * Instantiates a new GameClock, at tick 0 with nothing scheduled.
+     */
+    public GameClock() {
+        this.wheel = new TimingWheel();
+    }
+
+    /**
+     * Converts a time to a number of ticks, rounded up. Anything takes at least a tick.
+     *
+     * @param ms the time, in ms.
+     * @return the number of ticks.
+     */
+    public static long toTicks(int ms) {
+        return Math.max(1, (long) Math.ceil(ms * Simulation.TICK_RATE / 1000.0));
+    }
+
+    /**
+     * Gets the current tick.
+     *
+     * @return the number of ticks run since the clock was reset.
+     */
+    public long now() {
+        return wheel.now();
+    }
+
+    /**
+     * Advances the clock by one tick and runs every task due on it.
+     */
+    public void tick() {
+        wheel.advance();
+    }
+
+    /**
+     * Schedules a task to be run after a given time.
+     *
+     * @param ms   the time, in ms.
+     * @param task the task.
+     * @return the scheduled task, which can be cancelled.
+     */
+    public TimingWheel.Timeout schedule(int ms, @NotNull Runnable task) {
+        return wheel.schedule(toTicks(ms), task);
+    }
+
+    /**
+     * Puts a saved task back in the clock, see {@link TimingWheel#restore}.
+     *
+     * @param deadline the tick the task is due on.
+     * @param bucket   the slot of the wheel the task was in.
+     * @param sequence the number of the task in the wheel.
+     * @param task     the task.
+     * @return the restored task, which can be cancelled.
+     */
+    public TimingWheel.Timeout restore(long deadline, int bucket, long sequence, @NotNull Runnable task) {
+        return wheel.restore(deadline, bucket, sequence, task);
+    }
+
+    /**
+     * Gets the number of tasks waiting to run.
+     *
+     * @return the number of tasks.
+     */
+    public int getPending() {
+        return wheel.size();
+    }
+
+    /**
+     * Cancels every scheduled task and puts the clock back at tick 0, for a new game.
+     */
+    public void reset() {
+        wheel.clear();
+    }
+
+    /**
+     * Cancels every scheduled task and puts the clock at a given tick, to resume a game saved on that tick.
+     *
+     * @param now the tick.
+     */
+    public void reset(long now) {
+        wheel.clear(now);
+    }
+}
@@ -0,0 +1,228 @@
+import bagel.util.Vector2;
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Everything one game of Shadow Defend shares between its {@link Level}s, that used to be kept in singletons: the
+ * {@link Player}, the {@link GameClock}, the {@link Timescale}, the pools projectiles and bombs are taken from, and
+ * the direction the next {@link Airplane} flies in, and the random numbers of the game.
+ * <p>
+ * Every {@link Simulation} has its own GameContext and passes it down to whatever needs it as it updates, so any
+ * number of games can run in one JVM at once, each on its own thread, without touching each other.
+ * <p>
+ * Every random number in a game comes from a generator seeded with the seed of the game. Each tower is given a stream
+ * of its own {@link #splitRandom() split} from it when it is placed, so towers draw without locking or waiting on
+ * each other, on any thread, and what one draws never depends on when the others do. Two games with the same seed and
+ * the same input play out the same, see {@link InputReplayer}.
+ */
+public class GameContext {
+    private final Player player;
+    private final GameClock clock;
+    private final Timescale timescale;
+    private final Pool<TankProjectile> tankProjectiles;
+    private final Pool<SuperTankProjectile> superTankProjectiles;
+    private final Pool<Bomb> bombs;
+    private Vector2 nextAirplaneDirection;
+    private final long seed;
+    // only split from, in the order towers are placed
+    private GameRandom random;
+    private boolean verbose;
+
+    /**
+     * Instantiates a new GameContext for a new game, with a new player, nothing scheduled, empty pools and a seed
+     * of its own.
+     */
+    public GameContext() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Instantiates a new GameContext for a new game, with a new player, nothing scheduled and empty pools.
+     *
+     * @param seed the seed of the random numbers of the game.
+     */
+    public GameContext(long seed) {
+        this.player = new Player();
+        this.clock = new GameClock();
+        this.timescale = new Timescale();
+        this.tankProjectiles = TankProjectile.newPool();
+        this.superTankProjectiles = SuperTankProjectile.newPool();
+        this.bombs = Bomb.newPool();
+        this.nextAirplaneDirection = Airplane.FIRST_DIRECTION;
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        this.verbose = true;
+    }
+
+    /**
+     * Gets the player of the game, with their HP and money.
+     *
+     * @return the player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the clock of the game, which counts its ticks and runs what is scheduled on them.
+     *
+     * @return the clock.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the timescale of the game, the number of ticks it runs every tick of real time.
+     *
+     * @return the timescale.
+     */
+    public Timescale getTimescale() {
+        return timescale;
+    }
+
+    /**
+     * Sets whether the game prints what happens in it as it goes, levels being created, waves ending, bombs going
+     * off. A game is verbose unless told otherwise, games played without a window, e.g. by a {@link BatchRunner}, are
+     * quiet so that only their results are printed.
+     *
+     * @param verbose true to print, false to keep quiet.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Checks if the game prints what happens in it as it goes.
+     *
+     * @return true if it does, false if it is quiet.
+     */
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    /**
+     * Prints a line about what happens in the game, unless the game is quiet.
+     *
+     * @param message the line.
+     */
+    public void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Gets the seed the random numbers of the game are drawn from.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Splits a new stream of random numbers from the game's, for a tower that is being placed. The streams split from
+     * a game depend only on its seed and the order they are split in.
+     *
+     * @return the stream, not thread safe, to be drawn from by one tower.
+     */
+    public GameRandom splitRandom() {
+        return random.split();
+    }
+
+    /**
+     * Gets the pool the tank projectiles of the game are taken from.
+     *
+     * @return the pool.
+     */
+    public Pool<TankProjectile> getTankProjectiles() {
+        return tankProjectiles;
+    }
+
+    /**
+     * Gets the pool the super tank projectiles of the game are taken from.
+     *
+     * @return the pool.
+     */
+    public Pool<SuperTankProjectile> getSuperTankProjectiles() {
+        return superTankProjectiles;
+    }
+
+    /**
+     * Gets the pool the bombs of the game are taken from.
+     *
+     * @return the pool.
+     */
+    public Pool<Bomb> getBombs() {
+        return bombs;
+    }
+
+    /**
+     * Returns the direction the next airplane will travel in, and switches the one after between horizontal and
+     * vertical.
+     *
+     * @return the direction vector.
+     */
+    @NotNull
+    public Vector2 nextAirplaneDirection() {
+        Vector2 direction = nextAirplaneDirection;
+        // swap x and y : vertical <=> horizontal
+        nextAirplaneDirection = new Vector2(direction.y, direction.x);
+        return direction;
+    }
+
+    /**
+     * Returns the direction the next airplane will travel in without switching it, i.e. the same thing as
+     * {@link #nextAirplaneDirection()} would.
+     *
+     * @return the direction vector.
+     */
+    @NotNull
+    public Vector2 peekAirplaneDirection() {
+        return nextAirplaneDirection;
+    }
+
+    /**
+     * Writes what the Levels of the game share to a {@link Snapshot}: the tick of the clock, the player, the direction
+     * of the next airplane and where the random numbers are up to. The clock's tasks are written by whatever scheduled
+     * them.
+     *
+     * @param out where the context is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeLong(clock.now());
+        out.writeInt(player.getHP());
+        out.writeInt(player.getMoney());
+        out.writeDouble(nextAirplaneDirection.x);
+        out.writeDouble(nextAirplaneDirection.y);
+        out.writeRandom(random);
+    }
+
+    /**
+     * Puts the context back in the state written by {@link #save(SnapshotWriter)}, with nothing scheduled. Must be
+     * restored before anything that schedules tasks.
+     *
+     * @param in where the context is read from.
+     * @throws IOException if it cannot be read.
+     */
+    public void restore(@NotNull SnapshotReader in) throws IOException {
+        clock.reset(in.readLong());
+        player.setHp(in.readInt());
+        player.setMoney(in.readInt());
+        nextAirplaneDirection = new Vector2(in.readDouble(), in.readDouble());
+        random = in.readRandom();
+    }
+
+    /**
+     * Summarises how the pools of the game have been used, one line per pool, for logging.
+     *
+     * @return the summary.
+     */
+    public String report() {
+        return tankProjectiles.report() + System.lineSeparator() + superTankProjectiles.report()
+                + System.lineSeparator() + bombs.report();
+    }
+}
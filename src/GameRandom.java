@@ -0,0 +1,118 @@
+/**
+ * A stream of random numbers that new, independent streams can be split from, drawn with the SplitMix64 algorithm.
+ * Gives the same numbers as {@link java.util.SplittableRandom} with the same seed, but its state can be read and put
+ * back, so a game saved in a {@link Snapshot} draws the same numbers after it is resumed.
+ * <p>
+ * Not thread safe, every stream is meant to be drawn from by one owner, see {@link GameContext#splitRandom()}.
+ */
+public class GameRandom {
+    // odd, and as far from every power of 2 as can be
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    // added to the seed for every number, odd
+    private final long gamma;
+
+    /**
+     * Instantiates a new GameRandom.
+     *
+     * @param seed the seed.
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Instantiates a GameRandom that carries on from a saved state, see {@link #getSeed()} and {@link #getGamma()}.
+     *
+     * @param seed  the current seed.
+     * @param gamma the gamma of the stream, odd.
+     */
+    public GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Splits a new stream from this one, which shares no state with it. Advances this stream.
+     *
+     * @return the new stream.
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Draws a number.
+     *
+     * @return a number, any long equally likely.
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Draws a number below a bound.
+     *
+     * @param bound the bound, positive.
+     * @return a number from 0 to bound - 1, each equally likely.
+     * @throws IllegalArgumentException if the bound is not positive.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive, not " + bound);
+        }
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // a power of 2, the low bits will do
+            return r & m;
+        }
+        // numbers from the incomplete last multiple of the bound are drawn again
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+        }
+        return r;
+    }
+
+    /**
+     * Gets the current seed of the stream, to save its state.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the gamma of the stream, to save its state.
+     *
+     * @return the gamma.
+     */
+    public long getGamma() {
+        return gamma;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    // a gamma for a new stream, odd and with enough bits changing between neighbours to mix well
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,139 @@
+import bagel.util.Point;
+import org.jetbrains.annotations.NotNull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The binary form of a recorded game of Shadow Defend, written by an {@link InputRecorder} and read by an
+ * {@link InputReplayer}.
+ * <p>
+ * A log starts with a header: the magic number {@link #MAGIC}, the version, the seed of the game and the number of
+ * Levels. Then comes one record per thing the player did, in the order they were done: the kind of record, the number
+ * of ticks since the last record and whatever the record holds. A log ends with an {@link #END} record that holds the
+ * player's HP and money when the recording stopped, so a replay can tell if it played out the same.
+ * <p>
+ * Counts and tick differences are written as variable length numbers, 7 bits to a byte, so most records take 2 or 3
+ * bytes. Only placements, which hold the exact position of the cursor, are longer.
+ */
+public final class InputLog {
+    /**
+     * The first 4 bytes of every log, "SDLG".
+     */
+    public static final int MAGIC = 0x53444C47;
+
+    /**
+     * The version of the format, written after the magic number.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * A wave is started, see {@link Simulation#startWave()}. Holds nothing more.
+     */
+    public static final int START_WAVE = 0;
+
+    /**
+     * A tower is bought and placed, see {@link Simulation#placeTower(Tower)}. Holds the type of tower and the x and y
+     * it was placed at.
+     */
+    public static final int PLACE_TOWER = 1;
+
+    /**
+     * The HP cheat, see {@link Simulation#giveHp(int)}. Holds the HP given.
+     */
+    public static final int GIVE_HP = 2;
+
+    /**
+     * The money cheat, see {@link Simulation#giveMoney(int)}. Holds the money given.
+     */
+    public static final int GIVE_MONEY = 3;
+
+    /**
+     * The end of the log. Holds the player's HP and money.
+     */
+    public static final int END = 4;
+
+    // the types of tower a placement can hold
+    private static final int TANK = 0;
+    private static final int SUPER_TANK = 1;
+    private static final int AIRPLANE = 2;
+
+    private InputLog() {
+    }
+
+    /**
+     * Gets the number a type of tower is written as.
+     *
+     * @param tower the tower.
+     * @return the number of its type.
+     * @throws IllegalArgumentException if the tower cannot be bought.
+     */
+    public static int typeOf(@NotNull Tower tower) {
+        if (tower instanceof Tank) {
+            return TANK;
+        }
+        if (tower instanceof SuperTank) {
+            return SUPER_TANK;
+        }
+        if (tower instanceof Airplane) {
+            return AIRPLANE;
+        }
+        throw new IllegalArgumentException("unknown tower " + tower.getClass().getName());
+    }
+
+    /**
+     * Creates a new tower of a type, as if the player had just bought it.
+     *
+     * @param type  the number of the type, see {@link #typeOf(Tower)}.
+     * @param point where the tower goes.
+     * @return the tower.
+     * @throws IOException if there is no such type.
+     */
+    @NotNull
+    public static Tower newTower(int type, @NotNull Point point) throws IOException {
+        switch (type) {
+            case TANK:
+                return new Tank(point);
+            case SUPER_TANK:
+                return new SuperTank(point);
+            case AIRPLANE:
+                return new Airplane(point);
+            default:
+                throw new IOException("unknown tower " + type);
+        }
+    }
+
+    /**
+     * Writes a number that is usually small, in as few bytes as it takes, 7 bits to a byte.
+     *
+     * @param out   where it is written.
+     * @param value the number, negative numbers take 10 bytes.
+     * @throws IOException if it cannot be written.
+     */
+    public static void writeVarLong(@NotNull DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a number written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param in where it is read from.
+     * @return the number.
+     * @throws IOException if it cannot be read, or is longer than a long.
+     */
+    public static long readVarLong(@NotNull DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed number");
+    }
+}
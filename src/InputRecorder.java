@@ -0,0 +1,161 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes everything the player does in a game to a log, with the tick it was done on, so the game can be played
+ * again exactly by an {@link InputReplayer}. See {@link InputLog} for the format.
+ * <p>
+ * A recorder is set on a {@link Simulation}, which tells it about every wave started, tower placed and cheat used,
+ * whether it worked or not: the replay does the same things on the same ticks and gets the same result. Changes of
+ * {@link Timescale} are not recorded, the game is simulated tick by tick all the same, they only change how many ticks
+ * are run per frame. A tower that is bought and never placed changes nothing, so only placements are recorded.
+ * <p>
+ * A recording that cannot be written is given up on, with a message, instead of stopping the game.
+ */
+public class InputRecorder {
+    private final String path;
+    private DataOutputStream out;
+    // tick of the last record, ticks are written as the difference from it
+    private long lastTick;
+
+    /**
+     * Instantiates a new InputRecorder and writes the header of the log.
+     *
+     * @param path    the path of the log, replaced if it exists.
+     * @param context the context of the game being recorded, with its seed.
+     * @param levels  the number of Levels of the game.
+     * @throws IOException if the log cannot be written.
+     */
+    public InputRecorder(@NotNull String path, @NotNull GameContext context, int levels) throws IOException {
+        this.path = path;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+        this.lastTick = 0;
+        out.writeInt(InputLog.MAGIC);
+        out.writeByte(InputLog.VERSION);
+        out.writeLong(context.getSeed());
+        InputLog.writeVarLong(out, levels);
+    }
+
+    /**
+     * Records that a wave was started.
+     *
+     * @param tick the tick it was started on.
+     */
+    public void startWave(long tick) {
+        if (begin(InputLog.START_WAVE, tick)) {
+            end();
+        }
+    }
+
+    /**
+     * Records that a tower was placed.
+     *
+     * @param tick  the tick it was placed on.
+     * @param tower the tower, where it was placed.
+     */
+    public void placeTower(long tick, @NotNull Tower tower) {
+        if (begin(InputLog.PLACE_TOWER, tick)) {
+            try {
+                out.writeByte(InputLog.typeOf(tower));
+                out.writeDouble(tower.getPosition().x);
+                out.writeDouble(tower.getPosition().y);
+            } catch (IOException e) {
+                fail(e);
+            }
+            end();
+        }
+    }
+
+    /**
+     * Records that the HP cheat was used.
+     *
+     * @param tick the tick it was used on.
+     * @param hp   the HP given.
+     */
+    public void giveHp(long tick, int hp) {
+        if (begin(InputLog.GIVE_HP, tick)) {
+            writeAmount(hp);
+            end();
+        }
+    }
+
+    /**
+     * Records that the money cheat was used.
+     *
+     * @param tick  the tick it was used on.
+     * @param money the money given.
+     */
+    public void giveMoney(long tick, int money) {
+        if (begin(InputLog.GIVE_MONEY, tick)) {
+            writeAmount(money);
+            end();
+        }
+    }
+
+    /**
+     * Ends the log with how the game stood and closes it. Nothing more is recorded after.
+     *
+     * @param context the context of the game being recorded.
+     */
+    public void close(@NotNull GameContext context) {
+        if (begin(InputLog.END, context.getClock().now())) {
+            try {
+                out.writeInt(context.getPlayer().getHP());
+                out.writeInt(context.getPlayer().getMoney());
+                out.close();
+                System.out.println("recorded to " + path);
+            } catch (IOException e) {
+                fail(e);
+            }
+            out = null;
+        }
+    }
+
+    // writes the start of a record, false if nothing is being recorded any more
+    private boolean begin(int kind, long tick) {
+        if (out == null) {
+            return false;
+        }
+        try {
+            out.writeByte(kind);
+            InputLog.writeVarLong(out, tick - lastTick);
+            lastTick = tick;
+            return true;
+        } catch (IOException e) {
+            fail(e);
+            return false;
+        }
+    }
+
+    // a record goes out as soon as it is written, so a game that crashes still leaves a log
+    private void end() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeAmount(int amount) {
+        try {
+            InputLog.writeVarLong(out, amount);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        System.err.println("recording to " + path + " stopped: " + e.getMessage());
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,156 @@
+import bagel.util.Point;
+import org.jetbrains.annotations.NotNull;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Plays a game recorded by an {@link InputRecorder} again, without a window, as fast as the machine allows.
+ * <p>
+ * The game is a new {@link Simulation} with the seed of the recording. Everything the player did is done to it again
+ * through the same methods, on the same ticks, so it plays out the same as the recorded game, bit for bit. Used to
+ * reproduce a game that went wrong, or ran slowly, and profile it.
+ * <p>
+ * Usage: {@code java InputReplayer log}, run from the project root, where the resources are. Prints how the game
+ * ended and how long the replay took, and exits with 1 if the game did not end the way the recording did.
+ */
+public class InputReplayer {
+    private final String path;
+    private long seed;
+    private int levels;
+    // how the recorded game stood when the recording stopped, read from the end of the log
+    private long endTick;
+    private int endHp;
+    private int endMoney;
+    private boolean ended;
+
+    /**
+     * Instantiates a new InputReplayer.
+     *
+     * @param path the path of the log.
+     */
+    public InputReplayer(@NotNull String path) {
+        this.path = path;
+        this.ended = false;
+    }
+
+    /**
+     * Plays the recorded game to where the recording stopped, or to the end of the game, whichever is first.
+     *
+     * @return the game, as it stands after the replay.
+     * @throws IOException if the log cannot be read or is not a log.
+     */
+    public Simulation replay() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != InputLog.MAGIC) {
+                throw new IOException(path + " is not an input log");
+            }
+            int version = in.readUnsignedByte();
+            if (version != InputLog.VERSION) {
+                throw new IOException(path + " has version " + version + ", expected " + InputLog.VERSION);
+            }
+            seed = in.readLong();
+            levels = (int) InputLog.readVarLong(in);
+            Simulation simulation = new Simulation(new GameContext(seed), levels);
+            GameClock clock = simulation.getContext().getClock();
+
+            long tick = 0;
+            while (true) {
+                int kind;
+                try {
+                    kind = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    // the recorded game crashed before the log was ended, replay up to the last record
+                    return simulation;
+                }
+                tick += InputLog.readVarLong(in);
+                // records are written between ticks, run every tick that came before
+                while (clock.now() < tick && simulation.update()) {
+                }
+                switch (kind) {
+                    case InputLog.START_WAVE:
+                        simulation.startWave();
+                        break;
+                    case InputLog.PLACE_TOWER:
+                        int type = in.readUnsignedByte();
+                        double x = in.readDouble();
+                        double y = in.readDouble();
+                        simulation.placeTower(InputLog.newTower(type, new Point(x, y)));
+                        break;
+                    case InputLog.GIVE_HP:
+                        simulation.giveHp((int) InputLog.readVarLong(in));
+                        break;
+                    case InputLog.GIVE_MONEY:
+                        simulation.giveMoney((int) InputLog.readVarLong(in));
+                        break;
+                    case InputLog.END:
+                        endTick = tick;
+                        endHp = in.readInt();
+                        endMoney = in.readInt();
+                        ended = true;
+                        return simulation;
+                    default:
+                        throw new IOException(path + " has an unknown record " + kind);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the seed of the recorded game, once it has been replayed.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks if a replayed game ended up where the recorded game was when the recording stopped.
+     *
+     * @param simulation the game returned by {@link #replay()}.
+     * @return true if it is on the same tick with the same HP and money, false if otherwise or the log was not ended.
+     */
+    public boolean matches(@NotNull Simulation simulation) {
+        GameContext context = simulation.getContext();
+        return ended && context.getClock().now() == endTick && context.getPlayer().getHP() == endHp
+                && context.getPlayer().getMoney() == endMoney;
+    }
+
+    /**
+     * Entry point of the replayer, see the class description for usage.
+     *
+     * @param args the path of the log.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("usage: java InputReplayer log");
+            System.exit(2);
+        }
+        InputReplayer replayer = new InputReplayer(args[0]);
+        long start = System.nanoTime();
+        Simulation simulation;
+        try {
+            simulation = replayer.replay();
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+
+        GameContext context = simulation.getContext();
+        long ticks = context.getClock().now();
+        String outcome = simulation.isWon() ? "won" : simulation.isLost() ? "lost" : "stopped";
+        System.out.println("replayed " + args[0] + " (seed " + replayer.getSeed() + "): " + outcome + " after "
+                + ticks + " ticks, hp=" + context.getPlayer().getHP() + " money=" + context.getPlayer().getMoney()
+                + ", " + nanos / 1000000 + " ms, " + Math.round(nanos == 0 ? 0 : ticks * 1e9 / nanos)
+                + " ticks/s");
+        if (!replayer.matches(simulation)) {
+            System.out.println("the replay did not end the way the recording did");
+            System.exit(1);
+        }
+    }
+}
@@ -1,111 +1,301 @@
-import bagel.Input;
-import bagel.MouseButtons;
-import bagel.Window;
-import bagel.map.TiledMap;
-import bagel.util.Colour;
 import bagel.util.Point;
+import bagel.util.Rectangle;
 import org.jetbrains.annotations.NotNull;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.Scanner;
 
 /**
  * A Level contains a unique map and a unique {@link Route}. It also contains a number of {@link Wave}s,
  * and the {@link Player}'s {@link Tower}s. When update is called on a Level, everything that belongs to the
  * Level will be updated.
- *
+ * <p>
+ * A Level only holds the state of the game, it is drawn by {@link ShadowDefend}.
  */
 public class Level {
+    private static final String BLOCKED = "blocked";
+    private final GameContext context;
     private int lv;
-    private TiledMap map;
+    private MapData map;
+    private Rectangle bounds;
     private Route route;
     private ArrayList<Wave> incomingWaves;
-    private Iterator<Wave> incomingWavesIter;
+    // index of the next wave to be started
+    private int nextWave;
     private Wave activeWave;
     private ArrayList<Tower> towers;
-    private Tower placingTower;
+    private SlicerStore slicers;
+    private SlicerGrid slicerGrid;
+    private PlacementMap placementMap;
+    private TowerUpdater towerUpdater;
+    private int waveNumber;
 
     /**
      * Instantiates a new Level.
      *
-     * @param lv the Level number.
+     * @param context the game the Level belongs to.
+     * @param lv      the Level number.
      */
-    public Level(int lv) {
-        System.out.println("creating level" + lv);
+    public Level(@NotNull GameContext context, int lv) {
+        context.log("creating level" + lv);
+        this.context = context;
         this.lv = lv;
         createMap();
+        this.bounds = new Rectangle(0, 0, map.getWidth(), map.getHeight());
+        this.slicerGrid = new SlicerGrid(bounds);
+        this.placementMap = new PlacementMap(map, BLOCKED);
         this.route = new Route(new ArrayList<Point>( map.getAllPolylines().get(0)));
+        this.slicers = new SlicerStore(route);
         this.incomingWaves = new ArrayList<>();
         parseWaves();
-        this.incomingWavesIter = incomingWaves.iterator();
+        this.nextWave = 0;
         this.activeWave = null;
         this.towers = new ArrayList<>();
-        this.placingTower = null;
+        this.towerUpdater = new TowerUpdater();
+        this.waveNumber = 1;
     }
 
 
     /**
      * Updates everything that belongs to a Level, including all {@link Tower}s and any active {@link Wave}.
-     * The two panels, {@link BuyPanel} and {@link StatusPanel} are also updated with every call.
      *
-     * @param input the input
      * @return true if the Level has at least 1 active or incoming {@link Wave} remaining, false if otherwise.
      */
-// update everything that belongs to the current level
+    // update everything that belongs to the current level
     // returns false to indicate level has finished
-    public boolean update(Input input){
-        // draw map
-        map.draw(0,0,0,0, Window.getWidth(), Window.getHeight());
-
-        // update panel, if a tower is purchased, prepare for placement
-        Tower newTower = BuyPanel.getPanel().update(input);
-
-        if(newTower != null){
-            System.out.println("detected new tower");
-            placingTower = newTower;
-        }
-        updateStatus();
-        updatePlacingTower(input, newTower);
-
-        // check input for wave start key
-        checkInput(input);
-
+    public boolean update(){
         // if wave exists, update everything in the wave
         if (this.activeWave != null){
-            // get all enemies for the towers
-            ArrayList<Slicer> allSlicers = new ArrayList<>();
-            for (WaveEvent waveEvent : activeWave.getActiveWaveEvents()) {
-                if(waveEvent != null){
-                    if(waveEvent.getActiveSlicers() != null){
-                        allSlicers.addAll(waveEvent.getActiveSlicers());
-                    }
-                }
-            }
+            // index all enemies for the towers, once per tick
+            slicerGrid.rebuild(slicers);
 
-            updateTowers(input, allSlicers);
+            updateTowers();
+
+            // move every enemy, the dead ones spawn theirs
+            slicers.update();
+            int penalty = slicers.collectPenalty();
+            if(penalty > 0){
+                context.getPlayer().damageSelf(penalty);
+            }
 
             // if active wave has finished, remove it
-            if(!activeWave.update(input)){
+            if(!activeWave.update(context)){
                 // if no more waves, level is finished
-                if(!incomingWavesIter.hasNext()){
+                if(nextWave == incomingWaves.size()){
                     return false;
                 }
-                StatusPanel.getPanel().increaseWaveNumber();
+                waveNumber += 1;
                 activeWave = null;
             }
         }
         else{
-            // no active wave but still need to render the towers
-            updateTowers(input, new ArrayList<>());
+            // no active wave but airplanes still need to fly
+            slicerGrid.rebuild(slicers);
+            updateTowers();
         }
         return true;
     }
 
+    /**
+     * Gets every slicer that is currently on the map, whichever {@link WaveEvent} spawned it.
+     *
+     * @return the slicers.
+     */
+    public SlicerStore getSlicers(){
+        return slicers;
+    }
+
+    /**
+     * Starts the next {@link Wave} if no wave is in progress.
+     */
+    public void startWave(){
+        // check if wave is in progress
+        if(this.activeWave == null && nextWave < incomingWaves.size()){
+            activeWave = incomingWaves.get(nextWave++);
+        }
+    }
+
+    /**
+     * Gets the wave in progress.
+     *
+     * @return the active wave, or null if no wave is in progress.
+     */
+    public Wave getActiveWave(){
+        return activeWave;
+    }
+
+    /**
+     * Gets the route every enemy in the Level traverses.
+     *
+     * @return the route.
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Checks if a {@link Wave} is in progress.
+     *
+     * @return true if a wave is in progress, false if otherwise.
+     */
+    public boolean isWaveInProgress(){
+        return activeWave != null;
+    }
+
+    /**
+     * Gets the number of the current {@link Wave}.
+     *
+     * @return the wave number, starting from 1.
+     */
+    public int getWaveNumber() {
+        return waveNumber;
+    }
+
+    /**
+     * Gets the Level number.
+     *
+     * @return the Level number.
+     */
+    public int getLv() {
+        return lv;
+    }
+
+    /**
+     * Gets the map of the Level.
+     *
+     * @return the map.
+     */
+    public MapData getMap() {
+        return map;
+    }
+
+    /**
+     * Gets the towers the player has placed in the Level.
+     *
+     * @return the towers.
+     */
+    public ArrayList<Tower> getTowers() {
+        return towers;
+    }
+
+    /**
+     * Gets what updates the towers every tick, which decides when they are updated in parallel.
+     *
+     * @return the tower updater.
+     */
+    public TowerUpdater getTowerUpdater(){
+        return towerUpdater;
+    }
+
+    /**
+     * Gets where towers can be placed on the map, for areas drawn over the map to be kept clear of towers.
+     *
+     * @return the placement map.
+     */
+    public PlacementMap getPlacementMap(){
+        return placementMap;
+    }
+
+    /**
+     * Checks if a tower can be placed at its current position. {@link ActiveTower}s cannot be placed on the
+     * {@link Route} or on top of other active towers, no tower can be placed over an area blocked on the
+     * {@link PlacementMap}.
+     *
+     * @param tower the tower to be checked.
+     * @return true if the tower can be placed, false if otherwise.
+     */
+    public boolean isPlaceable(@NotNull Tower tower){
+        return placementMap.isPlaceable(tower);
+    }
+
+    /**
+     * Places a tower at its current position and charges the {@link Player} for it. An {@link ActiveTower} works out
+     * which stretches of the {@link Route} it covers there and then.
+     *
+     * @param tower the tower to be placed.
+     */
+    public void placeTower(@NotNull Tower tower){
+        context.log("setting new tower down at " + tower.getPosition().toString());
+        if (tower instanceof ActiveTower){
+            ((ActiveTower) tower).cover(route);
+        }
+        placementMap.place(tower);
+        // split in the order towers are placed, so a replayed game gives every tower the same numbers
+        tower.setRandom(context.splitRandom());
+        towers.add(tower);
+        context.getPlayer().transaction(-tower.getPrice());
+    }
+
+
+    /**
+     * Writes the state of the Level to a {@link Snapshot}: which wave it is on and how far the wave has got, every
+     * slicer, and every tower with its projectiles and bombs. The map and the waves themselves are read from the
+     * resources, as they are for a new Level.
+     *
+     * @param out where the Level is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeInt(waveNumber);
+        out.writeInt(nextWave);
+        out.writeBoolean(activeWave != null);
+        for (Wave wave: incomingWaves) {
+            wave.save(out);
+        }
+        slicers.save(out);
+        out.writeInt(towers.size());
+        for (Tower tower: towers) {
+            out.writeByte(InputLog.typeOf(tower));
+            out.writeDouble(tower.getPosition().x);
+            out.writeDouble(tower.getPosition().y);
+            tower.save(out);
+        }
+    }
+
+    /**
+     * Puts the Level in the state written by {@link #save(SnapshotWriter)}, whatever state it is in, e.g. to go back to
+     * an earlier tick. The towers it has are taken off the map and the saved ones placed again, without charging the
+     * player.
+     *
+     * @param in where the Level is read from.
+     * @throws IOException if it cannot be read.
+     */
+    public void restore(@NotNull SnapshotReader in) throws IOException {
+        waveNumber = in.readInt();
+        nextWave = in.readCount(incomingWaves.size());
+        activeWave = null;
+        if (in.readBoolean()){
+            if (nextWave == 0){
+                throw new IOException("corrupt snapshot, a wave is in progress before any has started");
+            }
+            activeWave = incomingWaves.get(nextWave - 1);
+        }
+        for (Wave wave: incomingWaves) {
+            wave.restore(in, context.getClock());
+        }
+        slicers.restore(in);
+        for (Tower tower: towers) {
+            tower.release();
+        }
+        towers.clear();
+        placementMap.clearTowers();
+        int count = in.readCount(Integer.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            int type = in.readByte();
+            Tower tower = InputLog.newTower(type, new Point(in.readDouble(), in.readDouble()));
+            if (tower instanceof ActiveTower){
+                ((ActiveTower) tower).cover(route);
+            }
+            placementMap.place(tower);
+            towers.add(tower);
+            tower.restore(in, context, slicerGrid);
+        }
+    }
 
     private void createMap(){
-        this.map = new TiledMap("res/levels/"+ this.lv + ".tmx");
+        this.map = new MapData("res/levels/"+ this.lv + ".tmx");
     }
 
 
@@ -136,8 +326,8 @@ public class Level {
 
                 // if waveEvent a spawn event
                 if(waveType.equals("spawn")){
-                    waveEvents.add(new WaveEvent(this.route,
-                            Integer.parseInt(specs[4]), specs[3], Integer.parseInt(specs[2])));
+                    waveEvents.add(new WaveEvent(this.slicers,
+                            Integer.parseInt(specs[4]), SlicerType.fromName(specs[3]), Integer.parseInt(specs[2])));
                 }
                 // if waveEvent is a delay event
                 if(waveType.equals("delay")){
@@ -153,107 +343,8 @@ public class Level {
         }
     }
 
-    // update towers, removing airplanes that went outside the window
-    private void updateTowers(Input input, ArrayList<Slicer> allSlicers){
-        ArrayList<Tower> temp = new ArrayList<>();
-        for (Tower tower: towers) {
-            tower.update(input, allSlicers);
-            if(placingTower != null){
-                tower.drawRectangle();
-            }
-            if (tower.inWindow()){
-                temp.add(tower);
-            }
-        }
-
-        towers.clear();
-        towers.addAll(temp);
-        temp.clear();
-    }
-
-    // checks for awaiting start, wave in progress, placing
-    private void updateStatus(){
-        if(!StatusPanel.getPanel().getStatus().equals(StatusPanel.STATUS_WIN)){
-            if (activeWave == null){
-                StatusPanel.getPanel().setStatus(StatusPanel.STATUS_AWAITING_START);
-            }
-            else {
-                StatusPanel.getPanel().setStatus(StatusPanel.STATUS_WAVE_IN_PROGRESS);
-            }
-            if (placingTower != null){
-                StatusPanel.getPanel().setStatus(StatusPanel.STATUS_PLACING);
-            }
-        }
-    }
-
-    // update the tower the player is placing if it exists
-    private void updatePlacingTower(Input input, Tower newTower){
-        if(placingTower != null){
-            Point cursor = new Point(input.getMouseX(), input.getMouseY());
-
-            // change the orientation of the sprite if tower is an airplane
-            if(placingTower instanceof Airplane){
-                placingTower.getOrientation().facing(new Point(0,0),
-                        Airplane.copyNextDirection().asPoint());
-            }
-
-            // tower follows cursor
-            placingTower.setPosition(cursor);
-            placingTower.render();
-
-            // activetowers cannot be placed on path
-            boolean placeable = true;
-            if(placingTower instanceof ActiveTower){
-                placeable = !map.hasProperty((int)cursor.x, (int)cursor.y, "blocked");
-                if(placeable){
-                    // checking if blocked by other towers
-                    for (Tower tower: towers) {
-                        if(tower instanceof ActiveTower){
-                            if(tower.getHitBox().intersects(placingTower.getHitBox())){
-                                placeable = false;
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
-
-            // cannot place on status panel
-            if (StatusPanel.getPanel().getRect().intersects(placingTower.getHitBox())){
-                placeable = false;
-            }
-            if (!placeable || placingTower.getHitBox().intersects(BuyPanel.getPanel().getRect())){
-                placingTower.drawRectangle();
-            }
-            else{
-                placingTower.drawRectangle(Colour.GREEN);
-            }
-            // if left click and left click not in the same frame as initial purchase
-            // and tower is not blocked
-            if (input.wasPressed(MouseButtons.LEFT) && newTower == null && placeable){
-                // transaction is cancelled if the tower is placed on the panel
-                if(BuyPanel.getPanel().getRect().intersects(placingTower.getHitBox())){
-                    placingTower = null;
-                }
-                else{
-                    System.out.println("setting new tower down at " + cursor.toString());
-                    towers.add(placingTower);
-                    Player.getPlayer().transaction(-placingTower.getPrice());
-                    placingTower = null;
-                }
-
-            }
-        }
-    }
-
-    // checks the input for wave start
-    private void checkInput(@NotNull Input input){
-        if(input.wasPressed(ShadowDefend.WAVE_START)){
-            // check if wave is in progress
-            if(this.activeWave == null){
-                activeWave = incomingWavesIter.next();
-
-            }
-        }
+    // update towers, removing airplanes that went outside the map
+    private void updateTowers(){
+        towerUpdater.update(context, towers, slicerGrid, bounds);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+import bagel.util.Point;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The simulation side of a Tiled map (.tmx). Reads the tile layers, the tile properties of the tile set
+ * and the polylines of the map without creating any textures, so a {@link Level} can be loaded and
+ * updated without a window.
+ * <p>
+ * Drawing the map is still done with {@link bagel.map.TiledMap}.
+ */
+public class MapData {
+    private final String src;
+    private int tileWidth;
+    private int tileHeight;
+    private int columns;
+    private int rows;
+    private int firstGid;
+    private final ArrayList<int[]> layers;
+    // tile id -> names of the properties of that tile
+    private final HashMap<Integer, HashSet<String>> tileProperties;
+    private final List<List<Point>> polylines;
+
+    /**
+     * Reads a map from a .tmx file.
+     *
+     * @param src the path of the .tmx file.
+     */
+    public MapData(String src) {
+        this.src = src;
+        this.layers = new ArrayList<>();
+        this.tileProperties = new HashMap<>();
+        this.polylines = new ArrayList<>();
+        try {
+            parseTmx();
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalStateException("cannot read map " + src, e);
+        }
+    }
+
+    /**
+     * Gets the path of the .tmx file this map was read from.
+     *
+     * @return the path.
+     */
+    public String getSrc() {
+        return src;
+    }
+
+    /**
+     * Gets the width of the map.
+     *
+     * @return the width, in px.
+     */
+    public int getWidth() {
+        return columns * tileWidth;
+    }
+
+    /**
+     * Gets the height of the map.
+     *
+     * @return the height, in px.
+     */
+    public int getHeight() {
+        return rows * tileHeight;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Gets every polyline in every object group of the map, in absolute coordinates.
+     *
+     * @return the polylines.
+     */
+    public List<List<Point>> getAllPolylines() {
+        return polylines;
+    }
+
+    /**
+     * Checks if any tile at a given location has a certain property, same as
+     * {@link bagel.map.TiledMap#hasProperty(int, int, String)}.
+     *
+     * @param x        the x coordinate, in px.
+     * @param y        the y coordinate, in px.
+     * @param property the name of the property.
+     * @return true if a tile at the location has the property, false if otherwise.
+     */
+    public boolean hasProperty(int x, int y, String property) {
+        if (x < 0 || y < 0 || x >= getWidth() || y >= getHeight()) {
+            return false;
+        }
+        int index = (y / tileHeight) * columns + x / tileWidth;
+        for (int[] layer : layers) {
+            int gid = layer[index];
+            if (gid == 0) {
+                continue;
+            }
+            HashSet<String> properties = tileProperties.get(gid - firstGid);
+            if (properties != null && properties.contains(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void parseTmx() throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        File tmx = new File(src);
+        Element root = builder.parse(tmx).getDocumentElement();
+        tileWidth = Integer.parseInt(root.getAttribute("tilewidth"));
+        tileHeight = Integer.parseInt(root.getAttribute("tileheight"));
+        columns = Integer.parseInt(root.getAttribute("width"));
+        rows = Integer.parseInt(root.getAttribute("height"));
+
+        // tile set, only the properties are needed
+        Element tileSet = (Element) root.getElementsByTagName("tileset").item(0);
+        firstGid = Integer.parseInt(tileSet.getAttribute("firstgid"));
+        parseTsx(builder.parse(new File(tmx.getParentFile(), tileSet.getAttribute("source"))));
+
+        // tile layers, csv encoded
+        NodeList layerNodes = root.getElementsByTagName("layer");
+        for (int i = 0; i < layerNodes.getLength(); i++) {
+            Element data = (Element) ((Element) layerNodes.item(i)).getElementsByTagName("data").item(0);
+            String[] cells = data.getTextContent().trim().split("\\s*,\\s*");
+            int[] layer = new int[columns * rows];
+            for (int j = 0; j < layer.length && j < cells.length; j++) {
+                layer[j] = Integer.parseInt(cells[j].trim());
+            }
+            layers.add(layer);
+        }
+
+        // polylines, points are relative to their object
+        NodeList objects = root.getElementsByTagName("object");
+        for (int i = 0; i < objects.getLength(); i++) {
+            Element object = (Element) objects.item(i);
+            NodeList lines = object.getElementsByTagName("polyline");
+            if (lines.getLength() == 0) {
+                continue;
+            }
+            double originX = Double.parseDouble(object.getAttribute("x"));
+            double originY = Double.parseDouble(object.getAttribute("y"));
+            ArrayList<Point> points = new ArrayList<>();
+            for (String pair : ((Element) lines.item(0)).getAttribute("points").trim().split("\\s+")) {
+                String[] xy = pair.split(",");
+                points.add(new Point(originX + Double.parseDouble(xy[0]), originY + Double.parseDouble(xy[1])));
+            }
+            polylines.add(points);
+        }
+    }
+
+    private void parseTsx(Document tsx) {
+        NodeList tiles = tsx.getDocumentElement().getElementsByTagName("tile");
+        for (int i = 0; i < tiles.getLength(); i++) {
+            Element tile = (Element) tiles.item(i);
+            int id = Integer.parseInt(tile.getAttribute("id"));
+            HashSet<String> names = new HashSet<>();
+            NodeList properties = tile.getElementsByTagName("property");
+            for (int j = 0; j < properties.getLength(); j++) {
+                Node property = properties.item(j);
+                names.add(((Element) property).getAttribute("name"));
+            }
+            tileProperties.put(id, names);
+        }
+    }
+}
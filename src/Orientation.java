@@ -52,10 +52,21 @@ public class Orientation {
     // gets the angle of a line specified by two points
     public double facing(@NotNull Point self, @NotNull Point other){
         Vector2 direction = other.asVector().sub(self.asVector());
-        double x = direction.x;
-        double y = direction.y;
+        angle = angleOf(direction.x, direction.y);
+        return angle;
+    }
+
+    /**
+     * Calculates the angle of a direction vector.
+     *
+     * @param x the x component of the vector.
+     * @param y the y component of the vector.
+     * @return the angle, in radians.
+     */
+    // gets the angle of a vector without creating any objects
+    public static double angleOf(double x, double y){
         final double PI = Math.PI;
-        angle = Math.atan(y / x);
+        double angle = Math.atan(y / x);
 
         // accounting for arctan in different quadrants
         if(x < 0){
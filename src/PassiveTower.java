@@ -1,9 +1,9 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.util.Point;
+import bagel.util.Rectangle;
 import bagel.util.Vector2;
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * Passive Towers are one time use, moving towers that support the player.
@@ -12,90 +12,159 @@ public abstract class PassiveTower extends Tower{
     private double speed;
     private Vector2 direction;
     private int cooldown;
-    private Timer dropTimer;
+    private int dropCooldown;
+    private boolean dropDue;
     private ArrayList<Bomb> bombs;
-    private Random random;
+    // the next drop, null before the tower starts flying
+    private TimingWheel.Timeout dropping;
+    private final Runnable drop;
 
     /**
      * Instantiates a new Passive tower.
      *
      * @param point     the starting location of the tower.
-     * @param image     the image of the tower.
+     * @param imageSrc  the image of the tower.
      * @param speed     the speed of the tower.
      * @param direction the direction in which the tower travels in.
      * @param cooldown  the cooldown of the tower's perk.
      */
-    public PassiveTower(Point point, Image image, double speed, Vector2 direction, int cooldown) {
-        super(point, image);
+    public PassiveTower(Point point, String imageSrc, double speed, Vector2 direction, int cooldown) {
+        super(point, imageSrc);
         this.speed = speed;
         this.direction = direction;
         this.cooldown = cooldown;
         this.bombs = new ArrayList<>();
-        this.random = new Random();
-        getRandomCooldown();
+        this.dropDue = false;
+        this.dropping = null;
+        this.drop = () -> dropDue = true;
     }
 
     @Override
-    public void update(Input input, ArrayList<Slicer> allSlicers) {
-        System.out.println("plane active");
-        super.update(input);
+    public void update(GameContext context, SlicerGrid allSlicers, Rectangle bounds) {
         // if passive tower has not been initialised yet
         if(direction == null){
             // calculate direction and location
-            direction = Airplane.getNextDirection();
+            direction = context.nextAirplaneDirection();
             Point currentLocation = super.getPosition();
             if(direction.x == 0){
                 // vertical
-                super.setPosition(new Point(currentLocation.x, 0));
+                super.teleport(new Point(currentLocation.x, 0));
                 super.getOrientation().setAngle(Orientation.S);
             }
             else {
                 // horizontal
-                super.setPosition(new Point(0, currentLocation.y));
+                super.teleport(new Point(0, currentLocation.y));
                 super.getOrientation().setAngle(Orientation.E);
             }
+            // the first drop is timed from when the tower starts flying
+            getRandomCooldown(context);
         }
         else{
             // if it has been initialised, move it
-            super.setPosition(super.getPosition().asVector().add(direction.mul(speed * Timescale.getTimescale().val()))
+            super.setPosition(super.getPosition().asVector().add(direction.mul(speed))
                     .asPoint());
         }
         // create and/or update bombs
-        if(dropTimer.tick()){
-            if(super.inWindow()){
-                dropBomb();
-                getRandomCooldown();
+        if(dropDue){
+            if(super.inBounds(bounds)){
+                dropBomb(context);
+                getRandomCooldown(context);
+            }
+            else {
+                // try again after the same cooldown
+                scheduleDrop(context);
             }
         }
-        updateBomb(allSlicers);
+        updateBomb(context, allSlicers);
     }
 
     // create a new bomb artifact
-    private void dropBomb(){
-        bombs.add(new Bomb(super.getPosition()));
+    private void dropBomb(GameContext context){
+        bombs.add(Bomb.drop(context, super.getPosition()));
     }
 
-    // updates all the bombs that belong to this tower
-    private void updateBomb(ArrayList<Slicer> slicers){
-        ArrayList<Bomb> temp = new ArrayList<>();
-        for (Bomb bomb: bombs) {
-            if(bomb.update(slicers)){
-                temp.add(bomb);
+    // updates all the bombs that belong to this tower, the ones that exploded go back to their pool
+    private void updateBomb(GameContext context, SlicerGrid slicers){
+        int kept = 0;
+        for (int i = 0; i < bombs.size(); i++) {
+            Bomb bomb = bombs.get(i);
+            if(bomb.update(context, slicers)){
+                bombs.set(kept++, bomb);
+            }
+            else {
+                bomb.release();
             }
         }
+        // drop the ones that exploded, in place
+        bombs.subList(kept, bombs.size()).clear();
+    }
+
+    // drawn from the tower's own stream, so a replayed game drops the same bombs
+    private void getRandomCooldown(GameContext context){
+        dropCooldown = getRandom().nextInt(cooldown);
+        scheduleDrop(context);
+    }
+
+    private void scheduleDrop(GameContext context){
+        dropDue = false;
+        dropping = context.getClock().schedule(dropCooldown, drop);
+    }
+
+    /**
+     * {@inheritDoc} A passive tower also writes which way it flies, when it drops its next bomb and the bombs it has
+     * dropped that have not exploded.
+     */
+    @Override
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        super.save(out);
+        out.writeBoolean(direction != null);
+        if(direction != null){
+            out.writeDouble(direction.x);
+            out.writeDouble(direction.y);
+        }
+        out.writeInt(dropCooldown);
+        out.writeBoolean(dropDue);
+        out.writeTimeout(dropping);
+        out.writeInt(bombs.size());
+        for (Bomb bomb: bombs) {
+            bomb.save(out);
+        }
+    }
+
+    @Override
+    public void release() {
+        for (Bomb bomb: bombs) {
+            bomb.release();
+        }
         bombs.clear();
-        bombs.addAll(temp);
-        temp.clear();
     }
 
-    private void getRandomCooldown(){
-        int cd = random.nextInt(cooldown);
-        dropTimer = new Timer(cd);
+    @Override
+    public void restore(@NotNull SnapshotReader in, @NotNull GameContext context, @NotNull SlicerGrid slicers)
+            throws IOException {
+        super.restore(in, context, slicers);
+        direction = in.readBoolean() ? new Vector2(in.readDouble(), in.readDouble()) : null;
+        dropCooldown = in.readInt();
+        dropDue = in.readBoolean();
+        dropping = in.readTimeout(context.getClock(), drop);
+        int count = in.readCount(Integer.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            bombs.add(Bomb.restore(in, context));
+        }
+    }
+
+    /**
+     * Gets the bombs dropped by the tower that have not exploded yet.
+     *
+     * @return the bombs.
+     */
+    public ArrayList<Bomb> getBombs() {
+        return bombs;
     }
 
     @Override
-    public boolean inWindow() {
-        return super.inWindow() || !bombs.isEmpty();
+    public boolean inBounds(Rectangle bounds) {
+        return super.inBounds(bounds) || !bombs.isEmpty();
     }
 }
 
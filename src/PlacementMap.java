@@ -0,0 +1,179 @@
+import bagel.util.Point;
+import bagel.util.Rectangle;
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Where towers can be placed on the map of a {@link Level}, one bit per pixel, so checking a spot takes O(1) however
+ * many towers there are.
+ * <p>
+ * Every type of tower has its own layer of bits, one for every pixel its centre could be put on. A layer is the
+ * Minkowski sum of everything in the way and the hit box of the type: a tower overlaps an area exactly when its centre
+ * is in the area grown by its hit box. In the way of every tower are the areas blocked on screen (e.g. the panels),
+ * in the way of {@link ActiveTower}s are also the blocked tiles of the map and the hit boxes of the active towers
+ * already placed.
+ * <p>
+ * A layer is built the first time its type is checked, placing a tower or blocking an area marks the grown rectangle
+ * in every layer there is. Checks are to the pixel, a centre between pixels is checked at the pixel it is in.
+ */
+public class PlacementMap {
+    private final MapData map;
+    private final String blockedProperty;
+    private final int width;
+    private final int height;
+    // areas every tower is kept out of
+    private final ArrayList<Rectangle> areas;
+    // hit boxes of the active towers that have been placed
+    private final ArrayList<Rectangle> towers;
+    // pixels whose tile is blocked, built with the first layer that needs it
+    private BitSet tiles;
+    private final HashMap<Class<?>, Layer> layers;
+
+    /**
+     * Instantiates a new PlacementMap, with nothing placed yet.
+     *
+     * @param map             the map of the level.
+     * @param blockedProperty the property of the tiles active towers cannot be placed on.
+     */
+    public PlacementMap(@NotNull MapData map, String blockedProperty) {
+        this.map = map;
+        this.blockedProperty = blockedProperty;
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.areas = new ArrayList<>();
+        this.towers = new ArrayList<>();
+        this.tiles = null;
+        this.layers = new HashMap<>();
+    }
+
+    /**
+     * Keeps every tower from being placed over an area, e.g. a panel drawn over the map.
+     *
+     * @param area the area.
+     */
+    public void block(@NotNull Rectangle area) {
+        areas.add(area);
+        for (Layer layer : layers.values()) {
+            layer.mark(area);
+        }
+    }
+
+    /**
+     * Records a tower that has been placed, active towers keep other active towers from overlapping them.
+     *
+     * @param tower the tower, at its position.
+     */
+    public void place(@NotNull Tower tower) {
+        if (!(tower instanceof ActiveTower)) {
+            return;
+        }
+        Rectangle hitBox = tower.getHitBox();
+        towers.add(hitBox);
+        for (Layer layer : layers.values()) {
+            if (layer.active) {
+                layer.mark(hitBox);
+            }
+        }
+    }
+
+    /**
+     * Forgets every tower that has been placed, keeping the blocked areas, e.g. before the towers of a {@link Snapshot}
+     * are placed again. The layers are built again the next time they are needed.
+     */
+    public void clearTowers() {
+        towers.clear();
+        layers.clear();
+    }
+
+    /**
+     * Checks if a tower can be placed at its current position. Takes O(1) once the type of the tower has been
+     * checked before.
+     *
+     * @param tower the tower, at the position to be checked.
+     * @return true if the tower can be placed, false if it is in the way of something or off the map.
+     */
+    public boolean isPlaceable(@NotNull Tower tower) {
+        // only blocked areas are in the way of passive towers, whose hit box is only known once they are drawn
+        if (!(tower instanceof ActiveTower) && areas.isEmpty()) {
+            return true;
+        }
+        Point position = tower.getPosition();
+        int x = (int) Math.floor(position.x);
+        int y = (int) Math.floor(position.y);
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        Layer layer = layers.get(tower.getClass());
+        if (layer == null) {
+            layer = new Layer(tower);
+            layers.put(tower.getClass(), layer);
+        }
+        return !layer.blocked.get(y * width + x);
+    }
+
+    // pixels whose tile has the blocked property, checked once per tile
+    private BitSet tiles() {
+        if (tiles == null) {
+            tiles = new BitSet(width * height);
+            int tileWidth = map.getTileWidth();
+            int tileHeight = map.getTileHeight();
+            for (int top = 0; top < height; top += tileHeight) {
+                for (int left = 0; left < width; left += tileWidth) {
+                    if (map.hasProperty(left, top, blockedProperty)) {
+                        for (int y = top; y < Math.min(top + tileHeight, height); y++) {
+                            tiles.set(y * width + left, y * width + Math.min(left + tileWidth, width));
+                        }
+                    }
+                }
+            }
+        }
+        return tiles;
+    }
+
+    // the spots a type of tower cannot be placed on
+    private class Layer {
+        private final boolean active;
+        // the hit box of the type, relative to the centre of the tower
+        private final double left;
+        private final double top;
+        private final double boxWidth;
+        private final double boxHeight;
+        private final BitSet blocked;
+
+        private Layer(Tower tower) {
+            Rectangle hitBox = tower.getHitBox();
+            Point position = tower.getPosition();
+            this.active = tower instanceof ActiveTower;
+            this.left = hitBox.left() - position.x;
+            this.top = hitBox.top() - position.y;
+            this.boxWidth = hitBox.right() - hitBox.left();
+            this.boxHeight = hitBox.bottom() - hitBox.top();
+            this.blocked = new BitSet(width * height);
+            for (Rectangle area : areas) {
+                mark(area);
+            }
+            if (active) {
+                blocked.or(tiles());
+                for (Rectangle other : towers) {
+                    mark(other);
+                }
+            }
+        }
+
+        // marks every centre at which the hit box would overlap a rectangle, as Rectangle.intersects does
+        private void mark(Rectangle area) {
+            // overlapping means area.left < x + left + boxWidth and area.right > x + left, likewise for y
+            int minX = Math.max(0, (int) Math.floor(area.left() - left - boxWidth) + 1);
+            int maxX = Math.min(width - 1, (int) Math.ceil(area.right() - left) - 1);
+            int minY = Math.max(0, (int) Math.floor(area.top() - top - boxHeight) + 1);
+            int maxY = Math.min(height - 1, (int) Math.ceil(area.bottom() - top) - 1);
+            for (int y = minY; y <= maxY; y++) {
+                if (minX <= maxX) {
+                    blocked.set(y * width + minX, y * width + maxX + 1);
+                }
+            }
+        }
+    }
+}
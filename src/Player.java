@@ -1,34 +1,22 @@
 import org.jetbrains.annotations.NotNull;
 
 /**
- * The player, keeps track of the player's money and health
+ * The player, keeps track of the player's money and health. Every game has its own, see {@link GameContext}.
  */
-// singleton
 // keeps track of money and health
 public class Player {
-    private static Player player;
-
     private static final int DEFAULT_HP = 25;
     private static final int DEFAULT_MONEY = 1000;
 
     private int hp;
     private int money;
 
-    private Player(){
-        this.hp = DEFAULT_HP;
-        this.money = DEFAULT_MONEY;
-    }
-
     /**
-     * Get the Player instance.
-     *
-     * @return the instance of Player
+     * Instantiates a new Player, with the starting HP and money.
      */
-    public static Player getPlayer(){
-        if(player == null){
-            player = new Player();
-        }
-        return player;
+    public Player(){
+        this.hp = DEFAULT_HP;
+        this.money = DEFAULT_MONEY;
     }
 
     public int getMoney() {
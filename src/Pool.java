@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable objects of one type, for objects that are created and thrown away all game long.
+ * <p>
+ * An object taken from the pool is either one that was given back before or, if there is none, a new one. Whoever
+ * takes an object resets every field of it before use, an object given back must not be used again. Keeps count of
+ * how many objects are waiting in the pool, the most that were ever out at once, and how often the pool was empty
+ * and a new object had to be created (a miss).
+ *
+ * @param <T> the type of the objects.
+ */
+public class Pool<T> {
+    private final String name;
+    private final Supplier<T> factory;
+    private final ArrayList<T> free;
+    private int inUse;
+    private int highWaterMark;
+    private long acquires;
+    private long misses;
+
+    /**
+     * Instantiates a new, empty Pool.
+     *
+     * @param name    the name of the pool, for logging.
+     * @param factory creates an object when the pool is empty.
+     */
+    public Pool(String name, Supplier<T> factory) {
+        this.name = name;
+        this.factory = factory;
+        this.free = new ArrayList<>();
+        this.inUse = 0;
+        this.highWaterMark = 0;
+        this.acquires = 0;
+        this.misses = 0;
+    }
+
+    /**
+     * Takes an object out of the pool, creating one if the pool is empty. The object must be reset before use.
+     *
+     * @return the object.
+     */
+    public T acquire() {
+        acquires++;
+        inUse++;
+        if (inUse > highWaterMark) {
+            highWaterMark = inUse;
+        }
+        if (free.isEmpty()) {
+            misses++;
+            return factory.get();
+        }
+        return free.remove(free.size() - 1);
+    }
+
+    /**
+     * Gives an object back to the pool, to be handed out again by a later {@link #acquire()}.
+     *
+     * @param object the object, taken from this pool and no longer used.
+     */
+    public void release(T object) {
+        inUse--;
+        free.add(object);
+    }
+
+    /**
+     * Gets the number of objects waiting in the pool to be reused.
+     *
+     * @return the number of objects.
+     */
+    public int getSize() {
+        return free.size();
+    }
+
+    /**
+     * Gets the most objects that were ever out of the pool at once.
+     *
+     * @return the number of objects.
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Gets the number of times an object was taken out of the pool.
+     *
+     * @return the number of acquires.
+     */
+    public long getAcquires() {
+        return acquires;
+    }
+
+    /**
+     * Gets the number of times the pool was empty and a new object was created.
+     *
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Summarises the state of the pool in one line, for logging.
+     *
+     * @return the summary.
+     */
+    public String report() {
+        return name + " pool: " + free.size() + " free, " + inUse + " in use, " + highWaterMark + " at most, "
+                + acquires + " acquires, " + misses + " misses";
+    }
+}
@@ -0,0 +1,223 @@
+import org.jetbrains.annotations.NotNull;
+import java.util.Arrays;
+
+/**
+ * An index of the slicers in a {@link SlicerStore} by how far along the route they are, for towers to pick their
+ * targets with.
+ * <p>
+ * The store keeps its slicers furthest along first, a slicer's place in that order is its rank. The index keeps a
+ * segment tree over the ranks of the HP each slicer will have left once the projectiles in flight at it land. A
+ * slicer with none left, because it is dead or doomed, is not a target. A stretch of the route is a range of ranks,
+ * found by binary search, and the tree finds the first, last or strongest target in a range, so every query takes
+ * O(log n).
+ * <p>
+ * The index is rebuilt in O(n) the first time it is queried after slicers have moved or spawned, and kept up to date
+ * in O(log n) as slicers take damage or are shot at.
+ */
+public class ProgressIndex {
+    private final SlicerStore slicers;
+    // rank of each slot, as of the last build
+    private int[] ranks;
+    // max HP left in each node, node 1 is the root, the leaves start at leaves
+    private int[] tree;
+    private int leaves;
+    private int count;
+    private boolean built;
+
+    /**
+     * Instantiates a new ProgressIndex.
+     *
+     * @param slicers the slicers to be indexed.
+     */
+    public ProgressIndex(@NotNull SlicerStore slicers) {
+        this.slicers = slicers;
+        this.ranks = new int[0];
+        this.tree = new int[2];
+        this.leaves = 1;
+        this.count = 0;
+        this.built = false;
+    }
+
+    /**
+     * Marks the index out of date, called by the store whenever its order changes.
+     */
+    public void invalidate() {
+        built = false;
+    }
+
+    /**
+     * Updates the HP left of a slicer, called by the store whenever the HP, pending damage or life of a slicer
+     * changes. Takes O(log n).
+     *
+     * @param slot the slot of the slicer.
+     */
+    public void changed(int slot) {
+        if (!built) {
+            return;
+        }
+        int node = leaves + ranks[slot];
+        tree[node] = hpLeft(slot);
+        for (node /= 2; node > 0; node /= 2) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Finds the target furthest along a stretch of the route.
+     *
+     * @param from the distance along the route the stretch starts at, in px.
+     * @param to   the distance along the route the stretch ends at, in px.
+     * @return the slot of the target, or -1 if there is none.
+     */
+    public int first(double from, double to) {
+        build();
+        int rank = leftmost(1, 0, leaves, rankAtMost(to), rankBelow(from), 1);
+        return rank == -1 ? -1 : slicers.slotAt(rank);
+    }
+
+    /**
+     * Finds the target least far along a stretch of the route.
+     *
+     * @param from the distance along the route the stretch starts at, in px.
+     * @param to   the distance along the route the stretch ends at, in px.
+     * @return the slot of the target, or -1 if there is none.
+     */
+    public int last(double from, double to) {
+        build();
+        int rank = rightmost(1, 0, leaves, rankAtMost(to), rankBelow(from), 1);
+        return rank == -1 ? -1 : slicers.slotAt(rank);
+    }
+
+    /**
+     * Finds the target with the most HP left on a stretch of the route, the one furthest along out of equally
+     * strong ones.
+     *
+     * @param from the distance along the route the stretch starts at, in px.
+     * @param to   the distance along the route the stretch ends at, in px.
+     * @return the slot of the target, or -1 if there is none.
+     */
+    public int strongest(double from, double to) {
+        build();
+        int low = rankAtMost(to);
+        int high = rankBelow(from);
+        int most = max(1, 0, leaves, low, high);
+        if (most < 1) {
+            return -1;
+        }
+        return slicers.slotAt(leftmost(1, 0, leaves, low, high, most));
+    }
+
+    /**
+     * Gets the HP a slicer will have left once the projectiles in flight at it land.
+     *
+     * @param slot the slot of the slicer.
+     * @return the HP, 0 if the slicer is dead or doomed.
+     */
+    public int hpLeft(int slot) {
+        if (!slicers.isAlive(slot)) {
+            return 0;
+        }
+        return Math.max(0, slicers.getHp(slot) - slicers.getPendingDamage(slot));
+    }
+
+    /**
+     * Brings the index up to date if it is not, ranking every slicer in the order of the store. Queries do so
+     * themselves, it only has to be called before the index is queried from several threads at once.
+     */
+    public void build() {
+        if (built) {
+            return;
+        }
+        count = slicers.size();
+        leaves = 1;
+        while (leaves < count) {
+            leaves *= 2;
+        }
+        if (tree.length < 2 * leaves) {
+            tree = new int[2 * leaves];
+        }
+        Arrays.fill(tree, 0);
+        for (int rank = 0; rank < count; rank++) {
+            int slot = slicers.slotAt(rank);
+            if (slot >= ranks.length) {
+                ranks = Arrays.copyOf(ranks, Math.max(slot + 1, 2 * ranks.length));
+            }
+            ranks[slot] = rank;
+            tree[leaves + rank] = hpLeft(slot);
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+        built = true;
+    }
+
+    // the first rank whose slicer is at most a distance along
+    private int rankAtMost(double progress) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slicers.getProgress(slicers.slotAt(mid)) > progress) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // the first rank whose slicer is less than a distance along
+    private int rankBelow(double progress) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slicers.getProgress(slicers.slotAt(mid)) >= progress) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // the most HP left in the ranks [low, high) that fall in a node covering [nodeLow, nodeHigh)
+    private int max(int node, int nodeLow, int nodeHigh, int low, int high) {
+        if (high <= nodeLow || nodeHigh <= low) {
+            return 0;
+        }
+        if (low <= nodeLow && nodeHigh <= high) {
+            return tree[node];
+        }
+        int mid = (nodeLow + nodeHigh) >>> 1;
+        return Math.max(max(2 * node, nodeLow, mid, low, high), max(2 * node + 1, mid, nodeHigh, low, high));
+    }
+
+    // the lowest rank in [low, high) with at least a given HP left, or -1
+    private int leftmost(int node, int nodeLow, int nodeHigh, int low, int high, int hp) {
+        if (high <= nodeLow || nodeHigh <= low || tree[node] < hp) {
+            return -1;
+        }
+        if (nodeHigh - nodeLow == 1) {
+            return nodeLow;
+        }
+        int mid = (nodeLow + nodeHigh) >>> 1;
+        int rank = leftmost(2 * node, nodeLow, mid, low, high, hp);
+        return rank != -1 ? rank : leftmost(2 * node + 1, mid, nodeHigh, low, high, hp);
+    }
+
+    // the highest rank in [low, high) with at least a given HP left, or -1
+    private int rightmost(int node, int nodeLow, int nodeHigh, int low, int high, int hp) {
+        if (high <= nodeLow || nodeHigh <= low || tree[node] < hp) {
+            return -1;
+        }
+        if (nodeHigh - nodeLow == 1) {
+            return nodeLow;
+        }
+        int mid = (nodeLow + nodeHigh) >>> 1;
+        int rank = rightmost(2 * node + 1, mid, nodeHigh, low, high, hp);
+        return rank != -1 ? rank : rightmost(2 * node, nodeLow, mid, low, high, hp);
+    }
+}
@@ -1,57 +1,123 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.util.Point;
-import bagel.util.Vector2;
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
 
 /**
  * Projectiles are artifacts fired by Active Towers to damage enemies.
+ * <p>
+ * Projectiles are taken from a {@link Pool} of their type when fired and given back when they are gone, so a tower
+ * shooting all game long does not create new ones.
+ * <p>
+ * A projectile holds a handle to its target, if the target dies or leaves the map before the projectile gets to it,
+ * the projectile turns to the first slicer near it instead, or is gone if there is none. The damage of a projectile
+ * is committed to its target while it is in flight, so towers do not shoot at slicers that are already as good as
+ * dead.
  */
 // projectile has a target, will fly towards the target at a given speed until hit
 public abstract class Projectile extends Sprite {
-    private Slicer target;
+    /**
+     * How far from a projectile a new target is looked for when its target is gone, in px.
+     */
+    public static final double RETARGET_RANGE = 100;
+    private SlicerGrid slicers;
+    private int target; // handle
     private int damage;
-    private double speed; // px/f
+    private double speed; // px/tick
 
     /**
-     * Instantiates a new Projectile.
+     * Instantiates a new Projectile that has not been fired yet, see {@link #reset(Point, SlicerGrid, int)}.
      *
-     * @param start  the starting position of the projectile.
-     * @param target the target of the projectile.
-     * @param image  the image of the projectile.
+     * @param imageSrc the image of the projectile.
      * @param damage the damage of the projectile.
      * @param speed  the speed of the projectile.
      */
-    public Projectile(Point start, Slicer target, Image image, int damage, double speed) {
-        super(start, image);
-        this.target = target;
+    public Projectile(String imageSrc, int damage, double speed) {
+        super(new Point(0, 0), imageSrc);
         this.damage = damage;
-        this.speed = speed * ShadowDefend.ASSUMED_FPS / ShadowDefend.FPS;
+        this.speed = speed * Simulation.BASE_TICK_RATE / Simulation.TICK_RATE;
+    }
+
+    /**
+     * Fires the projectile, forgetting any target it had before.
+     *
+     * @param start  the starting position of the projectile.
+     * @param slicers the slicers on the map, indexed for finding a new target.
+     * @param target the handle of the target of the projectile.
+     */
+    public void reset(Point start, SlicerGrid slicers, int target) {
+        super.teleport(start);
+        this.slicers = slicers;
+        this.target = target;
+        slicers.getSlicers().commitDamage(target, damage);
+    }
+
+    /**
+     * Puts the projectile back in flight as it was when it was saved, see {@link #save(SnapshotWriter)}. Its damage is
+     * already committed to its target in the restored slicers.
+     *
+     * @param position where the projectile is.
+     * @param slicers  the slicers on the map.
+     * @param target   the handle of the target of the projectile.
+     */
+    protected void resume(Point position, SlicerGrid slicers, int target) {
+        super.teleport(position);
+        this.slicers = slicers;
+        this.target = target;
     }
 
     /**
-     * Calculates the projectile's location based on its speed and target.
+     * Writes where the projectile is and what it is flying at to a {@link Snapshot}.
      *
-     * @param input the input
-     * @return true when the projectile hits the target, false otherwise.
+     * @param out where the projectile is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeDouble(super.getPosition().x);
+        out.writeDouble(super.getPosition().y);
+        out.writeInt(target);
+    }
+
+    /**
+     * Calculates the projectile's location based on its speed and target. If the target is gone, a new one is looked
+     * for within {@link #RETARGET_RANGE}. Only reads the slicers, what the projectile does to them is written to a
+     * buffer, so projectiles of different towers can be updated at the same time.
+     *
+     * @param hits the buffer of the tower that fired the projectile.
+     * @return true when the projectile hits a target or has none left, false otherwise.
      */
 // updates the projectile, fly towards its target, returns true when it hits the target
-    public boolean update(Input input){
-        super.render();
+    public boolean update(DamageBuffer hits){
+        SlicerStore store = slicers.getSlicers();
         Point currentPosition = super.getPosition();
-        Point targetPosition = this.target.getPosition();
-        int timescale = Timescale.getTimescale().val();
-        if(currentPosition.distanceTo(targetPosition) <= speed * timescale
-                + 5){ // hitbox of all slicers is a 5 px circle
-            target.damageSelf(damage);
+        if (!store.isValid(target)){
+            // killed by something else or gone off the map, find another
+            hits.withdraw(target, damage);
+            // skipping slicers the tower's other projectiles have turned to this tick
+            int slot = slicers.firstInRange(currentPosition, RETARGET_RANGE, hits);
+            if (slot == -1){
+                return true;
+            }
+            target = store.handleOf(slot);
+            hits.commit(target, damage);
+        }
+        int slot = SlicerStore.slotOf(target);
+        double dx = store.getX(slot) - currentPosition.x;
+        double dy = store.getY(slot) - currentPosition.y;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if(distance <= speed + 5){ // hitbox of all slicers is a 5 px circle
+            hits.hit(target, damage);
             return true;
         }
         // update the location of the projectile
         else{
-            Vector2 targetVector = targetPosition.asVector();
-            Vector2 currentVector = currentPosition.asVector();
-            super.setPosition(currentVector.add(targetVector.sub(currentVector).normalised().mul(speed * timescale))
-                    .asPoint());
+            super.setPosition(new Point(currentPosition.x + dx / distance * speed,
+                    currentPosition.y + dy / distance * speed));
             return false;
         }
     }
+
+    /**
+     * Gives the projectile back to the pool of its type once it is gone, it must not be used afterwards.
+     */
+    public abstract void release();
 }
@@ -0,0 +1,451 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Keeps the last few seconds of a game, tick by tick, so the player can step back to any of those ticks and forward
+ * again, and carry on playing from there, without playing the Level again from the start.
+ * <p>
+ * Every tick the {@link Simulation} is written as a {@link Snapshot}, in memory. Every {@link #getKeyframeInterval()}
+ * ticks the whole snapshot is kept, a keyframe, and in between only the bytes that changed since the tick before, a
+ * delta. Most of a snapshot stays the same from one tick to the next, the towers, the waves that have not started, the
+ * slicers that have not moved, so a delta is a small part of a keyframe. To go back to a tick, the keyframe before it
+ * is read and the deltas after it applied, then the game is restored from the result.
+ * <p>
+ * The keyframes and deltas are kept in a ring outside the heap, of a fixed size. When the ring is full, or holds more
+ * ticks than asked for, the oldest keyframe is dropped with the deltas that depend on it, so the ring always starts on
+ * a keyframe and never takes more memory than it was given. The index of the ticks is kept in arrays of primitives.
+ * <p>
+ * Carrying on from a tick that has been stepped back to drops every tick after it.
+ */
+public class RewindBuffer {
+    /**
+     * The number of seconds of game time kept, unless told otherwise.
+     */
+    public static final int DEFAULT_SECONDS = 10;
+
+    /**
+     * The number of ticks from one keyframe to the next, unless told otherwise, half a second.
+     */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = Simulation.TICK_RATE / 2;
+
+    /**
+     * The most memory, in bytes, the ticks are kept in, unless told otherwise.
+     */
+    public static final int DEFAULT_MEMORY = 64 << 20;
+
+    // unchanged bytes between two changed ones are sent as changed if there are fewer than this, a new run costs more
+    private static final int MIN_GAP = 4;
+    // the most bytes a varint takes
+    private static final int MAX_VARINT = 5;
+
+    private final int keyframeInterval;
+    // the keyframes and deltas, back to back, addressed by positions that only grow, modulo its capacity
+    private final ByteBuffer ring;
+    // the index, a ring of entries one per tick, the oldest at first
+    private final long[] ticks;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final boolean[] keyframes;
+    private int first;
+    private int count;
+    // where the oldest entry starts and the newest ends in the ring
+    private long start;
+    private long end;
+    // number of entries since the newest keyframe, counting it
+    private int sinceKeyframe;
+
+    // the entry the game is on, the snapshot of which is in state, -1 if none
+    private int cursor;
+    private byte[] state;
+    private int stateLength;
+
+    // reused every tick
+    private final SnapshotWriter writer;
+    private byte[] next;
+    private byte[] delta;
+    private byte[] entry;
+
+    /**
+     * Instantiates a new RewindBuffer.
+     *
+     * @param seconds          the number of seconds of game time kept.
+     * @param keyframeInterval the number of ticks from one keyframe to the next.
+     * @param memory           the most memory, in bytes, the ticks are kept in, taken outside the heap up front.
+     * @throws IllegalArgumentException if any of them is not positive.
+     */
+    public RewindBuffer(int seconds, int keyframeInterval, int memory) {
+        if (seconds <= 0 || keyframeInterval <= 0 || memory <= 0) {
+            throw new IllegalArgumentException("seconds, keyframe interval and memory must be positive, not "
+                    + seconds + ", " + keyframeInterval + ", " + memory);
+        }
+        int capacity = seconds * Simulation.TICK_RATE;
+        this.keyframeInterval = keyframeInterval;
+        this.ring = ByteBuffer.allocateDirect(memory);
+        this.ticks = new long[capacity];
+        this.offsets = new long[capacity];
+        this.lengths = new int[capacity];
+        this.keyframes = new boolean[capacity];
+        this.writer = new SnapshotWriter();
+        this.state = new byte[0];
+        this.next = new byte[0];
+        this.delta = new byte[0];
+        this.entry = new byte[0];
+        clear();
+    }
+
+    /**
+     * Instantiates a RewindBuffer that keeps {@link #DEFAULT_SECONDS} of game time in at most
+     * {@link #DEFAULT_MEMORY} bytes.
+     */
+    public RewindBuffer() {
+        this(DEFAULT_SECONDS, DEFAULT_KEYFRAME_INTERVAL, DEFAULT_MEMORY);
+    }
+
+    /**
+     * Keeps the tick a game has just run, see {@link Simulation#setRewindBuffer(RewindBuffer)}. If the game has been
+     * stepped back, every tick after the one it carried on from is dropped first.
+     *
+     * @param simulation the game, between ticks.
+     */
+    public void record(@NotNull Simulation simulation) {
+        if (cursor < count - 1) {
+            truncate();
+        }
+        writer.reset();
+        try {
+            simulation.save(writer);
+        } catch (IOException e) {
+            // cannot happen in memory
+            throw new IllegalStateException("cannot write the game to memory", e);
+        }
+        ByteBuffer bytes = writer.getBytes();
+        int length = bytes.remaining();
+        next = ensureCapacity(next, length);
+        bytes.get(next, 0, length);
+
+        boolean keyframe = count == 0 || sinceKeyframe >= keyframeInterval;
+        int size = keyframe ? length : encodeDelta(length);
+        if (size < 0) {
+            // the delta would be no smaller
+            keyframe = true;
+            size = length;
+        }
+        while (count > 0 && (count == ticks.length || end - start + size > ring.capacity())) {
+            if (!keyframe && nextKeyframe() == count) {
+                // the only keyframe left is the one this delta depends on, the tick is kept whole instead
+                keyframe = true;
+                size = length;
+                clear();
+                break;
+            }
+            dropOldest();
+        }
+        if (size > ring.capacity()) {
+            // a single tick does not fit, nothing is kept
+            clear();
+            return;
+        }
+
+        int slot = slot(count);
+        ticks[slot] = simulation.getContext().getClock().now();
+        offsets[slot] = end;
+        lengths[slot] = size;
+        keyframes[slot] = keyframe;
+        put(end, keyframe ? next : delta, size);
+        end += size;
+        count++;
+        sinceKeyframe = keyframe ? 1 : sinceKeyframe + 1;
+
+        // the newest tick is the one the game is on
+        byte[] swap = state;
+        state = next;
+        next = swap;
+        stateLength = length;
+        cursor = count - 1;
+    }
+
+    /**
+     * Puts a game back to the tick before the one it is on, if it is kept.
+     *
+     * @param simulation the game that has been recorded.
+     * @return true if the game has been stepped back, false if the tick it is on is the oldest kept.
+     */
+    public boolean stepBack(@NotNull Simulation simulation) {
+        if (cursor <= 0) {
+            return false;
+        }
+        seek(cursor - 1);
+        restore(simulation);
+        return true;
+    }
+
+    /**
+     * Puts a game that has been stepped back to the tick after the one it is on.
+     *
+     * @param simulation the game that has been recorded.
+     * @return true if the game has been stepped forward, false if the tick it is on is the newest kept.
+     */
+    public boolean stepForward(@NotNull Simulation simulation) {
+        if (cursor >= count - 1) {
+            return false;
+        }
+        seek(cursor + 1);
+        restore(simulation);
+        return true;
+    }
+
+    /**
+     * Checks if the game has been stepped back from the newest tick kept.
+     *
+     * @return true if it has, false if otherwise.
+     */
+    public boolean isRewound() {
+        return cursor < count - 1;
+    }
+
+    /**
+     * Gets the tick the game is on.
+     *
+     * @return the tick, or -1 if nothing has been kept.
+     */
+    public long getTick() {
+        return cursor < 0 ? -1 : ticks[slot(cursor)];
+    }
+
+    /**
+     * Gets the number of ticks kept.
+     *
+     * @return the number of ticks.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the number of ticks from one keyframe to the next.
+     *
+     * @return the number of ticks.
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Gets the memory the kept ticks take in the ring, in bytes.
+     *
+     * @return the number of bytes, never more than the memory the RewindBuffer was given.
+     */
+    public long getMemoryUsed() {
+        return end - start;
+    }
+
+    // forgets every tick
+    private void clear() {
+        first = 0;
+        count = 0;
+        start = 0;
+        end = 0;
+        sinceKeyframe = 0;
+        cursor = -1;
+        stateLength = 0;
+    }
+
+    // index of the slot of an entry, counting from the oldest
+    private int slot(int index) {
+        return (first + index) % ticks.length;
+    }
+
+    // index of the first keyframe after the oldest entry, count if there is none
+    private int nextKeyframe() {
+        int index = 1;
+        while (index < count && !keyframes[slot(index)]) {
+            index++;
+        }
+        return index;
+    }
+
+    // drops the oldest keyframe and the deltas that depend on it
+    private void dropOldest() {
+        int dropped = nextKeyframe();
+        first = slot(dropped);
+        count -= dropped;
+        cursor -= dropped;
+        start = count == 0 ? end : offsets[first];
+        if (count == 0) {
+            clear();
+        }
+    }
+
+    // drops every entry after the one the game is on
+    private void truncate() {
+        int last = slot(cursor);
+        end = offsets[last] + lengths[last];
+        count = cursor + 1;
+        sinceKeyframe = 1;
+        for (int index = cursor; !keyframes[slot(index)]; index--) {
+            sinceKeyframe++;
+        }
+    }
+
+    // puts the snapshot of an entry in state, from the snapshot in state if it is of an earlier entry
+    private void seek(int target) {
+        // back to the keyframe before it, or to the entry after the one in state if that comes first
+        int from = target;
+        while (!keyframes[slot(from)] && from != cursor + 1) {
+            from--;
+        }
+        for (int index = from; index <= target; index++) {
+            int slot = slot(index);
+            entry = ensureCapacity(entry, lengths[slot]);
+            get(offsets[slot], entry, lengths[slot]);
+            if (keyframes[slot]) {
+                state = ensureCapacity(state, lengths[slot]);
+                System.arraycopy(entry, 0, state, 0, lengths[slot]);
+                stateLength = lengths[slot];
+            }
+            else {
+                applyDelta();
+            }
+        }
+        cursor = target;
+    }
+
+    // puts the game in the state of the entry the game is on
+    private void restore(@NotNull Simulation simulation) {
+        try {
+            simulation.restore(new SnapshotReader(ByteBuffer.wrap(state, 0, stateLength)));
+        } catch (IOException e) {
+            // cannot happen to a snapshot the game has just written
+            throw new IllegalStateException("cannot restore tick " + getTick(), e);
+        }
+    }
+
+    // writes the bytes of next that differ from state to delta, returns its length, or -1 if it is not the smaller
+    private int encodeDelta(int length) {
+        delta = ensureCapacity(delta, length);
+        int common = Math.min(length, stateLength);
+        int size = writeVarint(0, length, length);
+        int written = 0;
+        int i = 0;
+        while (i < length && size >= 0) {
+            if (i < common && next[i] == state[i]) {
+                i++;
+                continue;
+            }
+            // a run of changed bytes, through short gaps of unchanged ones
+            int runStart = i;
+            int runEnd = i + 1;
+            int j = runEnd;
+            while (j < length) {
+                if (j >= common || next[j] != state[j]) {
+                    runEnd = ++j;
+                    continue;
+                }
+                int gapEnd = j;
+                while (gapEnd < common && gapEnd - j < MIN_GAP && next[gapEnd] == state[gapEnd]) {
+                    gapEnd++;
+                }
+                if (gapEnd - j >= MIN_GAP || gapEnd == length) {
+                    break;
+                }
+                j = gapEnd;
+            }
+            size = writeVarint(size, runStart - written, length);
+            size = writeVarint(size, runEnd - runStart, length);
+            if (size < 0 || size + runEnd - runStart > length) {
+                return -1;
+            }
+            System.arraycopy(next, runStart, delta, size, runEnd - runStart);
+            size += runEnd - runStart;
+            written = runEnd;
+            i = runEnd;
+        }
+        // a run of nothing ends the delta
+        size = writeVarint(size, 0, length);
+        size = writeVarint(size, 0, length);
+        return size;
+    }
+
+    // applies the delta in entry to state, in place, as each changed byte is where it was
+    private void applyDelta() {
+        int position = 0;
+        int length = readVarint(position);
+        position += varintSize(length);
+        state = ensureCapacity(state, length);
+        int written = 0;
+        while (true) {
+            int skip = readVarint(position);
+            position += varintSize(skip);
+            int run = readVarint(position);
+            position += varintSize(run);
+            if (run == 0) {
+                break;
+            }
+            written += skip;
+            System.arraycopy(entry, position, state, written, run);
+            position += run;
+            written += run;
+        }
+        stateLength = length;
+    }
+
+    // writes a varint to delta at a position, returns the position after it, or -1 if it goes past the limit
+    private int writeVarint(int position, int value, int limit) {
+        if (position < 0 || position + MAX_VARINT > limit) {
+            return -1;
+        }
+        while ((value & ~0x7F) != 0) {
+            delta[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        delta[position++] = (byte) value;
+        return position;
+    }
+
+    private int readVarint(int position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = entry[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    // copies bytes into the ring at a position, wrapping round its end
+    private void put(long position, @NotNull byte[] bytes, int length) {
+        int at = (int) (position % ring.capacity());
+        int head = Math.min(length, ring.capacity() - at);
+        ring.position(at);
+        ring.put(bytes, 0, head);
+        ring.position(0);
+        ring.put(bytes, head, length - head);
+    }
+
+    // copies bytes out of the ring from a position, wrapping round its end
+    private void get(long position, @NotNull byte[] bytes, int length) {
+        int at = (int) (position % ring.capacity());
+        int head = Math.min(length, ring.capacity() - at);
+        ring.position(at);
+        ring.get(bytes, 0, head);
+        ring.position(0);
+        ring.get(bytes, head, length - head);
+    }
+
+    // an array at least as long as a length, the same one if it is already
+    private static byte[] ensureCapacity(@NotNull byte[] bytes, int length) {
+        return bytes.length >= length ? bytes : Arrays.copyOf(bytes, Math.max(length, 2 * bytes.length));
+    }
+}
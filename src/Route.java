@@ -1,30 +1,36 @@
 import bagel.util.Point;
-import bagel.util.Vector2;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
 
 /**
  * A route for an entity to traverse in, in the form of a series of Points.
+ * <p>
+ * The length of every segment, the distance of every point from the start, and the direction and heading of every
+ * segment are calculated once per series of points. A Route never changes, one Route is shared by every entity
+ * traversing it. Each entity keeps its own cursor: the segment it is on and its distance from the start. Finding the
+ * position and heading at a cursor does not allocate anything.
  */
 // routes for enemies to go through
-// each enemy will store one route to track progress
-public class Route implements Cloneable{
-    private ArrayList<Point> points;
-    private Iterator<Point> pointsIterator;
-    private Point currentTarget;
+// every enemy on a level shares the level's route and tracks its own progress
+public class Route {
+    private final double[] xs;
+    private final double[] ys;
+    // distance of each point from the start of the route
+    private final double[] distances;
+    // unit direction and heading of each segment, segment i goes from point i to point i + 1
+    private final double[] directionXs;
+    private final double[] directionYs;
+    private final double[] headings;
 
     /**
      * Instantiates a new Route.
      *
      * @param points the series of points that makes up the route.
      */
-    public Route(ArrayList<Point> points) {
-        this.points = points;
-        pointsIterator = this.points.iterator();
-        currentTarget = pointsIterator.next();
+    public Route(@NotNull ArrayList<Point> points) {
+        this(points.toArray(new Point[0]));
     }
 
     /**
@@ -32,95 +38,166 @@ public class Route implements Cloneable{
      *
      * @param points the series of points that makes up the route.
      */
-    public Route(Point[] points) {
-        this.points = new ArrayList<>(Arrays.asList(points));
-        pointsIterator = this.points.iterator();
-        currentTarget = pointsIterator.next();
+    public Route(@NotNull Point[] points) {
+        int count = points.length;
+        this.xs = new double[count];
+        this.ys = new double[count];
+        this.distances = new double[count];
+        // a route with a single point still has one (empty) segment
+        int segments = Math.max(1, count - 1);
+        this.directionXs = new double[segments];
+        this.directionYs = new double[segments];
+        this.headings = new double[segments];
+
+        for (int i = 0; i < count; i++) {
+            xs[i] = points[i].x;
+            ys[i] = points[i].y;
+        }
+        double heading = Orientation.E;
+        for (int i = 0; i + 1 < count; i++) {
+            double dx = xs[i + 1] - xs[i];
+            double dy = ys[i + 1] - ys[i];
+            double length = Math.sqrt(dx * dx + dy * dy);
+            distances[i + 1] = distances[i] + length;
+            // a segment of length 0 keeps the heading of the one before it
+            if (length > 0) {
+                directionXs[i] = dx / length;
+                directionYs[i] = dy / length;
+                heading = Orientation.angleOf(dx, dy);
+            }
+            headings[i] = heading;
+        }
     }
 
     /**
-     * Instantiates a new Route that is already traversed up to a certain point.
+     * Gets the length of the route.
      *
-     * @param points        the series of points.
-     * @param currentTarget the current target point in the route.
+     * @return the length, in px.
      */
-    public Route(@NotNull ArrayList<Point> points, Point currentTarget) {
-        this.points = points;
-        pointsIterator = this.points.iterator();
-        // iterate the iterator until the currentTarget
-        for (Point point : points){
-            if(point.equals(currentTarget)){
-               break;
-            }
-            pointsIterator.next();
+    public double getLength() {
+        return distances[distances.length - 1];
+    }
+
+    /**
+     * Gets the number of segments of the route.
+     *
+     * @return the number of segments, at least 1.
+     */
+    public int getSegmentCount() {
+        return headings.length;
+    }
+
+    /**
+     * Finds the segment a distance along the route is on, starting from the segment an entity was last on.
+     * <p>
+     * Entities only move forward a little at a time, so this is usually an index bump.
+     *
+     * @param progress the distance from the start of the route, in px.
+     * @param hint     the segment the entity was last on.
+     * @return the segment, segment i goes from point i to point i + 1.
+     */
+    public int segmentAt(double progress, int hint) {
+        int last = headings.length - 1;
+        int i = hint;
+        if (progress < distances[i]) {
+            // moved backwards, search the whole route
+            i = Arrays.binarySearch(distances, progress);
+            i = i >= 0 ? i : -i - 2;
         }
-        this.currentTarget = currentTarget;
+        while (i < last && progress > distances[i + 1]) {
+            i++;
+        }
+        return Math.min(Math.max(i, 0), last);
     }
 
     /**
-     * Copy route.
+     * Gets the distance of the start of a segment from the start of the route.
      *
-     * @return the route
+     * @param segment the segment.
+     * @return the distance, in px.
      */
-// returns a duplicate of this route
-    public Route copy(){
-        return new Route(this.points, this.currentTarget);
+    public double getStart(int segment) {
+        return distances[segment];
     }
 
     /**
-     * Gets the current target point
+     * Gets the x coordinate of a point along the route.
      *
-     * @return the current target point in the series of points
+     * @param segment  the segment the point is on.
+     * @param progress the distance of the point from the start of the route, in px.
+     * @return the x coordinate.
      */
-    public Point getCurrentTarget() {
-        return currentTarget;
+    public double getX(int segment, double progress) {
+        return xs[segment] + directionXs[segment] * (progress - distances[segment]);
     }
 
-    public ArrayList<Point> getPoints() {
-        return points;
+    /**
+     * Gets the y coordinate of a point along the route.
+     *
+     * @param segment  the segment the point is on.
+     * @param progress the distance of the point from the start of the route, in px.
+     * @return the y coordinate.
+     */
+    public double getY(int segment, double progress) {
+        return ys[segment] + directionYs[segment] * (progress - distances[segment]);
     }
 
     /**
-     * Calculates and returns the next target point in the route.
+     * Gets the heading of a segment of the route.
      *
-     * @param current the current coordinates of the entity traversing the route.
-     * @param spd     the speed of the entity traversing the route.
-     * @return the target point.
+     * @param segment the segment.
+     * @return the angle of the heading, in radians.
+     * @see Orientation
      */
-// returns a point that indicates where the enemy will be at the next frame
-    // spd = speed of enemy, in px/frame
-    public Point next(Point current, double spd){
-        double distanceLeft = spd;
-        Vector2 currentVector;
-        Vector2 targetVector;
-        Vector2 newVector;
-        while (distanceLeft > 0){
-            currentVector = current.asVector();
-            targetVector = currentTarget.asVector();
+    public double getHeading(int segment) {
+        return headings[segment];
+    }
 
-            if(current.distanceTo(currentTarget) >= distanceLeft){
-                newVector = targetVector.sub(currentVector);
-                newVector = newVector.normalised();
-                newVector = newVector.mul(distanceLeft);
-                newVector = currentVector.add(newVector);
-                return newVector.asPoint();
+    /**
+     * Finds the parts of the route within a range of a point, as distances from the start of the route. A circle
+     * crosses each segment at most once, so there is at most one interval per segment, and intervals that meet at
+     * a point of the route are merged. The last segment carries on past the end of the route, as positions along
+     * it do. Takes O(segments).
+     *
+     * @param centre the centre of the range.
+     * @param range  the range, in px.
+     * @return the intervals, as start and end distance pairs in increasing order, {a0, b0, a1, b1, ...}.
+     */
+    public double[] coverage(@NotNull Point centre, double range) {
+        double[] intervals = new double[2 * headings.length];
+        int count = 0;
+        for (int i = 0; i + 1 < distances.length; i++) {
+            double length = distances[i + 1] - distances[i];
+            if (length <= 0) {
+                continue;
+            }
+            // points of the segment at t px from its start are in range where t^2 + 2bt + c <= 0
+            double ox = xs[i] - centre.x;
+            double oy = ys[i] - centre.y;
+            double b = directionXs[i] * ox + directionYs[i] * oy;
+            double c = ox * ox + oy * oy - range * range;
+            double discriminant = b * b - c;
+            if (discriminant < 0) {
+                continue;
+            }
+            double root = Math.sqrt(discriminant);
+            double from = Math.max(0, -b - root);
+            // past the end of the route is still on the last segment
+            double to = i + 2 == distances.length ? -b + root : Math.min(length, -b + root);
+            if (from > to) {
+                continue;
+            }
+            from += distances[i];
+            to += distances[i];
+            if (count > 0 && intervals[count - 1] >= from) {
+                // carries on from the interval of the segment before
+                intervals[count - 1] = Math.max(intervals[count - 1], to);
             }
-            else{ // need to get a new target
-                // cannot normalise (0,0) so need to manually skip this case
-                if(!currentVector.equals(targetVector)){
-                    double distanceCanCover = current.distanceTo(currentTarget);
-                    double remainingDistance = distanceLeft - distanceCanCover;
-                    newVector = targetVector.sub(currentVector);
-                    newVector = newVector.normalised();
-                    newVector = newVector.mul(distanceCanCover);
-                    newVector = currentVector.add(newVector);
-                    current = newVector.asPoint();
-                    distanceLeft = remainingDistance;
-                }
-                if (!pointsIterator.hasNext()){return null;}
-                currentTarget = pointsIterator.next();
+            else {
+                intervals[count++] = from;
+                intervals[count++] = to;
             }
         }
-        return null;
+        return Arrays.copyOf(intervals, count);
     }
 }
@@ -1,23 +1,23 @@
 import bagel.*;
+import bagel.map.TiledMap;
+import bagel.util.Colour;
+import bagel.util.Point;
 import org.jetbrains.annotations.NotNull;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * The game Shadow defend.
+ * <p>
+ * The state of the game is kept in a {@link Simulation}, ShadowDefend reads the player's input, advances the
+ * simulation and draws it.
  */
 public class ShadowDefend extends AbstractGame {
     /**
-     * Frames per second.
-     * FPS = update() per second, MAY VARY FROM SYSTEM TO SYSTEM, change this to suit your system
+     * The longest time, in ns, one frame can advance the game by. After a longer stall (e.g. the window being
+     * dragged) the game resumes where it was instead of running every tick it missed at once.
      */
-    public static final int FPS = 120;
-
-    /**
-     * The assumed FPS this game will be run in.
-     * do not change this, this is used to scale things that are fps based
-     */
-    public static final double ASSUMED_FPS = 60.0;
+    public static final long MAX_FRAME_TIME = 250000000L;
 
     // Settings for keys
     /**
@@ -70,23 +70,145 @@ public class ShadowDefend extends AbstractGame {
     public static final Keys DEBUG_HP = Keys.N;
 
     /**
-     * The number of Levels to be loaded from the resource folder (/res/levels).
+     * Key bind to save the game to {@link #SAVE_PATH}, see {@link Snapshot}.
+     */
+    public static final Keys SAVE = Keys.F5;
+
+    /**
+     * The file the game is saved to, when {@link #SAVE} is pressed or the window is closed before the game is over.
+     */
+    public static final String SAVE_PATH = "save.snapshot";
+
+    /**
+     * Key bind to stop the game and step through the last ticks with {@link #STEP_BACK} and {@link #STEP_FORWARD},
+     * and to carry on from the tick stepped to, when the game is started with {@code --rewind}. While the game is
+     * stopped, every other key but {@link #SAVE} is ignored and no tower can be bought or placed.
      */
-    private static final int MAX_LEVEL = 2;
-    private Level activeLevel;
-    private Iterator<Level> incomingLevelsIter;
+    public static final Keys REWIND = Keys.R;
+
+    /**
+     * Key bind to step back a tick while held, see {@link #REWIND}.
+     */
+    public static final Keys STEP_BACK = Keys.LEFT;
+
+    /**
+     * Key bind to step forward a tick while held, see {@link #REWIND}.
+     */
+    public static final Keys STEP_FORWARD = Keys.RIGHT;
+
+    // colour of the stretches of the route the tower being placed would cover
+    private static final Colour COVERAGE_COLOUR = new Colour(1, 0.85, 0, 0.6);
+    private static final int COVERAGE_THICKNESS = 6; // px
+
+    private Simulation simulation;
+    private GameContext context;
+    // created with the first frame, once the window is up
+    private BuyPanel buyPanel;
+    private StatusPanel statusPanel;
+    // time of the last frame, in ns, 0 before the first frame
+    private long lastFrameTime;
+    // game time that has passed but not been simulated yet, in ns, always less than a tick after a frame
+    private long unsimulatedTime;
+    // average real time it takes to simulate a tick, in ns
+    private double timePerTick;
+    // map of the level that is being drawn
+    private Level drawnLevel;
+    private TiledMap map;
+    // tower the player has bought but not placed yet
+    private Tower placingTower;
+    // reused for every slicer drawn
+    private DrawOptions slicerOptions;
+    // null unless the game is being recorded
+    private InputRecorder recorder;
+    // null unless the last ticks are kept to go back to
+    private RewindBuffer rewindBuffer;
+    // true while the game is stopped to step through the last ticks
+    private boolean rewinding;
 
 
     /**
      * Entry point for Bagel game
      * <p>
      * Explore the capabilities of Bagel: https://people.eng.unimelb.edu.au/mcmurtrye/bagel-doc/
+     * <p>
+     * With {@code --record log}, everything the player does is recorded to a log, to be played again with
+     * {@link InputReplayer}. With {@code --resume snapshot}, a game saved with {@link #SAVE} carries on where it was.
+     * With {@code --rewind seconds}, the last seconds of the game are kept to step back through with {@link #REWIND},
+     * in at most {@code --rewind-memory MB} of memory. A game that is recorded cannot be rewound.
      *
      * @param args the input arguments
      */
     public static void main(String[] args) {
+        String resume = null;
+        String record = null;
+        int rewindSeconds = 0;
+        int rewindMemory = RewindBuffer.DEFAULT_MEMORY >> 20;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    usage();
+                }
+                switch (args[i]) {
+                    case "--resume":
+                        resume = args[i + 1];
+                        break;
+                    case "--record":
+                        record = args[i + 1];
+                        break;
+                    case "--rewind":
+                        rewindSeconds = Integer.parseInt(args[i + 1]);
+                        break;
+                    case "--rewind-memory":
+                        rewindMemory = Integer.parseInt(args[i + 1]);
+                        break;
+                    default:
+                        usage();
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage();
+        }
+        if (record != null && (resume != null || rewindSeconds > 0)){
+            System.err.println("error: a recorded game starts from the beginning and cannot be rewound");
+            System.exit(2);
+        }
+        if (rewindSeconds < 0 || rewindMemory <= 0 || rewindMemory > Integer.MAX_VALUE >> 20){
+            usage();
+        }
+
         // Create new instance of game and run it
-        new ShadowDefend().run();
+        ShadowDefend game = null;
+        try {
+            if (resume != null){
+                game = new ShadowDefend(Snapshot.load(Paths.get(resume)));
+            }
+            else {
+                game = new ShadowDefend();
+                if (record != null){
+                    game.record(record);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(2);
+        }
+        if (rewindSeconds > 0){
+            game.rewindBuffer = new RewindBuffer(rewindSeconds, RewindBuffer.DEFAULT_KEYFRAME_INTERVAL,
+                    rewindMemory << 20);
+            game.simulation.setRewindBuffer(game.rewindBuffer);
+        }
+        game.run();
+        game.stopRecording();
+        // closing the window mid game saves it
+        if (!game.simulation.isOver()){
+            game.save();
+        }
+    }
+
+    private static void usage(){
+        System.err.println("usage: java ShadowDefend [--resume snapshot | --record log] [--rewind seconds]"
+                + " [--rewind-memory MB]");
+        System.exit(2);
     }
 
     /**
@@ -95,81 +217,347 @@ public class ShadowDefend extends AbstractGame {
     public ShadowDefend(){
         // Constructor
         // create levels
-        parseLevels();
+        this(new Simulation());
+    }
+
+    /**
+     * Setup the game to carry on with a game that has already started, e.g. one resumed from a {@link Snapshot}.
+     *
+     * @param simulation the game.
+     */
+    public ShadowDefend(@NotNull Simulation simulation){
+        this.simulation = simulation;
+        this.context = simulation.getContext();
+        this.buyPanel = null;
+        this.statusPanel = null;
+        this.lastFrameTime = 0;
+        this.unsimulatedTime = 0;
+        this.timePerTick = 0;
+        this.drawnLevel = null;
+        this.map = null;
+        this.placingTower = null;
+        this.slicerOptions = new DrawOptions();
+        this.recorder = null;
+        this.rewindBuffer = null;
+        this.rewinding = false;
+    }
+
+    /**
+     * Records everything the player does from now on to a log, see {@link InputRecorder}.
+     *
+     * @param path the path of the log.
+     * @throws IOException if the log cannot be written.
+     */
+    public void record(@NotNull String path) throws IOException {
+        recorder = new InputRecorder(path, context, simulation.getLevelCount());
+        simulation.setRecorder(recorder);
+    }
+
+    // saves the game between ticks, a game that cannot be saved carries on
+    private void save(){
+        try {
+            long start = System.nanoTime();
+            Snapshot.save(simulation, Paths.get(SAVE_PATH));
+            System.out.println("saved to " + SAVE_PATH + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+        } catch (IOException e) {
+            System.err.println("cannot save to " + SAVE_PATH + ": " + e.getMessage());
+        }
+    }
+
+    // ends the log, if the game is being recorded
+    private void stopRecording(){
+        if (recorder != null){
+            simulation.setRecorder(null);
+            recorder.close(context);
+            recorder = null;
+        }
     }
 
     /**
-     * Updates the game state approximately 60 times a second, potentially reading from input.
-     * Note that on some machines the actual number of times the game updates per second may differ.
+     * Draws a frame of the game, potentially reading from input. Called once per frame, however often the
+     * machine draws frames.
+     * <p>
+     * The {@link Simulation} advances by as many fixed ticks as fit in the time since the last frame, so the game
+     * runs at the same speed and gives the same results at any frame rate. What is drawn is interpolated between the
+     * last two ticks. While the game is being rewound it does not advance, the tick stepped to is drawn as it is.
+     *
      * @param input The input instance which provides access to keyboard/mouse state information.
      */
     @Override
     protected void update(Input input) {
-        // check for timescale controls and debugging controls
-        checkInput(input);
-        // if no level is active
-        if(activeLevel == null){
-            // if no level left, exit
-            if(!incomingLevelsIter.hasNext()){
-                Window.close();
-            }
-            else{
-                System.out.println("=====activating a new level=====");
-                // activate a new Level
-                activeLevel = incomingLevelsIter.next();
-                // reset player health and money
-                Player.getPlayer().resetPlayer();
+        if (buyPanel == null){
+            buyPanel = new BuyPanel(context.getPlayer());
+            statusPanel = new StatusPanel(context);
+        }
+        // while the game is stopped to step through the last ticks, nothing but stepping and saving changes it
+        if (rewindBuffer != null){
+            checkRewind(input);
+        }
+        if (rewinding){
+            placingTower = null;
+            if(input.wasPressed(SAVE)){
+                save();
             }
         }
-        // update current level and
-        // if current level has finished, remove it
-        else{
-            if(!activeLevel.update(input)){
-                if(incomingLevelsIter.hasNext()){
-                    this.activeLevel = null;
+        else {
+            // check for timescale controls and debugging controls
+            checkInput(input);
+        }
+
+        // advance the game, unless it is stopped to step through the last ticks
+        if (rewinding){
+            lastFrameTime = System.nanoTime();
+            unsimulatedTime = 0;
+        }
+        else {
+            advanceSimulation();
+        }
+        if (simulation.isLost()){
+            System.out.println("YOU LOSE");
+            System.out.println(Assets.report());
+            System.out.println(context.report());
+            stopRecording();
+            Window.close();
+            return;
+        }
+        if (!simulation.isWon() && simulation.getActiveLevel() == null){
+            // between levels, nothing to draw
+            placingTower = null;
+            return;
+        }
+
+        // draw the game, part of the way into the tick that has not been simulated yet
+        Level level = simulation.getActiveLevel();
+        drawLevel(level, rewinding ? 1 : (double) unsimulatedTime / Simulation.TICK_TIME);
+
+        // update panel, if a tower is purchased, prepare for placement
+        Tower newTower = buyPanel.update(input);
+        if (rewinding){
+            // towers are bought once the game carries on
+            updateStatus(level);
+            statusPanel.update();
+            return;
+        }
+        if(newTower != null){
+            System.out.println("detected new tower");
+            placingTower = newTower;
+        }
+        updateStatus(level);
+        updatePlacingTower(input, newTower, level);
+        statusPanel.update();
+    }
+
+    // runs every tick that fits in the time since the last frame
+    private void advanceSimulation(){
+        long now = System.nanoTime();
+        if (lastFrameTime != 0){
+            unsimulatedTime += Math.min(now - lastFrameTime, MAX_FRAME_TIME);
+        }
+        else {
+            // the first frame runs the first tick
+            unsimulatedTime = Simulation.TICK_TIME;
+        }
+        lastFrameTime = now;
+        // every tick of real time runs as many ticks as the timescale, back to back
+        int timescale = context.getTimescale().val();
+        int ticks = 0;
+        boolean going = true;
+        while (going && unsimulatedTime >= Simulation.TICK_TIME){
+            unsimulatedTime -= Simulation.TICK_TIME;
+            going = simulation.advance(timescale);
+            ticks += timescale;
+        }
+        if (!going){
+            unsimulatedTime = 0;
+        }
+        if (ticks > 0){
+            // moving average over about a second of frames
+            double frameTimePerTick = (double) (System.nanoTime() - now) / ticks;
+            timePerTick = timePerTick == 0 ? frameTimePerTick : timePerTick * 0.99 + frameTimePerTick * 0.01;
+        }
+    }
+
+    /**
+     * Estimates the highest timescale this machine can keep up with, from how long recent ticks took to simulate.
+     *
+     * @return the timescale, or 0 if no tick has been simulated yet.
+     */
+    public int getSustainableTimescale(){
+        return timePerTick == 0 ? 0 : (int) (Simulation.TICK_TIME / timePerTick);
+    }
+
+    // draws the map and everything that belongs to the level
+    private void drawLevel(@NotNull Level level, double alpha){
+        // the map is only loaded when its level is first drawn
+        if (level != drawnLevel){
+            drawnLevel = level;
+            map = new TiledMap(level.getMap().getSrc());
+            // a tower bought in the last level is not carried over
+            placingTower = null;
+            // no tower can be placed under the status panel
+            level.getPlacementMap().block(statusPanel.getRect());
+        }
+        map.draw(0,0,0,0, Window.getWidth(), Window.getHeight());
+
+        for (Tower tower: level.getTowers()) {
+            tower.render(alpha);
+            if (placingTower != null){
+                tower.drawRectangle();
+            }
+            if (tower instanceof ActiveTower){
+                for (Projectile projectile: ((ActiveTower) tower).getProjectiles()) {
+                    projectile.render(alpha);
                 }
-                else{
-                    System.out.println("YOU WIN!");
-                    StatusPanel.getPanel().setStatus(StatusPanel.STATUS_WIN);
+            }
+            if (tower instanceof PassiveTower){
+                for (Bomb bomb: ((PassiveTower) tower).getBombs()) {
+                    bomb.render(alpha);
                 }
             }
         }
-        StatusPanel.getPanel().update();
+        drawSlicers(level.getSlicers(), alpha);
+    }
 
-        if (Player.getPlayer().isDead()){
-            System.out.println("YOU LOSE");
-            Window.close();
+    // draws the stretches of a route given as start and end distance pairs
+    private void drawCoverage(@NotNull Route route, double[] coverage){
+        for (int i = 0; i < coverage.length; i += 2) {
+            double from = coverage[i];
+            double to = coverage[i + 1];
+            int segment = route.segmentAt(from, 0);
+            int last = route.segmentAt(to, segment);
+            // one line per segment the stretch goes over
+            while (true) {
+                double end = segment == last ? to : route.getStart(segment + 1);
+                Drawing.drawLine(new Point(route.getX(segment, from), route.getY(segment, from)),
+                        new Point(route.getX(segment, end), route.getY(segment, end)),
+                        COVERAGE_THICKNESS, COVERAGE_COLOUR);
+                if (segment == last) {
+                    break;
+                }
+                segment++;
+                from = end;
+            }
         }
     }
 
-    // creates all levels
-    private void parseLevels(){
-        ArrayList<Level> incomingLevels = new ArrayList<>();
-        this.activeLevel = null;
-        int i;
-        for(i = 1; i <= MAX_LEVEL ; i ++){
-            incomingLevels.add(new Level(i));
+    // draws every slicer where it was part way through the last tick, facing along the route
+    private void drawSlicers(@NotNull SlicerStore slicers, double alpha){
+        Route route = slicers.getRoute();
+        for (int i = 0; i < slicers.size(); i++) {
+            int slot = slicers.slotAt(i);
+            double progress = Math.max(0, slicers.getProgress(slot) - slicers.getSpeed(slot) * (1 - alpha));
+            int segment = route.segmentAt(progress, slicers.getSegment(slot));
+            slicerOptions.setRotation(route.getHeading(segment));
+            Assets.getImage(slicers.getType(slot).getImageSrc()).draw(route.getX(segment, progress),
+                    route.getY(segment, progress), slicerOptions);
+        }
+    }
+
+    // checks for awaiting start, wave in progress, placing
+    private void updateStatus(@NotNull Level level){
+        statusPanel.setWaveNumber(level.getWaveNumber());
+        if (simulation.isWon()){
+            statusPanel.setStatus(StatusPanel.STATUS_WIN);
+            return;
+        }
+        if (!level.isWaveInProgress()){
+            statusPanel.setStatus(StatusPanel.STATUS_AWAITING_START);
+        }
+        else {
+            statusPanel.setStatus(StatusPanel.STATUS_WAVE_IN_PROGRESS);
+        }
+        if (placingTower != null){
+            statusPanel.setStatus(StatusPanel.STATUS_PLACING);
+        }
+    }
+
+    // update the tower the player is placing if it exists
+    private void updatePlacingTower(Input input, Tower newTower, Level level){
+        if(placingTower != null){
+            Point cursor = new Point(input.getMouseX(), input.getMouseY());
+
+            // change the orientation of the sprite if tower is an airplane
+            if(placingTower instanceof Airplane){
+                placingTower.getOrientation().facing(new Point(0,0),
+                        context.peekAirplaneDirection().asPoint());
+            }
+
+            // tower follows cursor
+            placingTower.teleport(cursor);
+            placingTower.render();
+
+            // show what an active tower would cover if placed here
+            if(placingTower instanceof ActiveTower){
+                drawCoverage(level.getRoute(), level.getRoute().coverage(cursor,
+                        ((ActiveTower) placingTower).getRange()));
+            }
+
+            // activetowers cannot be placed on path or on other towers, no tower on the status panel
+            boolean placeable = level.isPlaceable(placingTower);
+
+            if (!placeable || placingTower.getHitBox().intersects(buyPanel.getRect())){
+                placingTower.drawRectangle();
+            }
+            else{
+                placingTower.drawRectangle(Colour.GREEN);
+            }
+            // if left click and left click not in the same frame as initial purchase
+            // and tower is not blocked
+            if (input.wasPressed(MouseButtons.LEFT) && newTower == null && placeable){
+                // transaction is cancelled if the tower is placed on the panel
+                if(!buyPanel.getRect().intersects(placingTower.getHitBox())){
+                    simulation.placeTower(placingTower);
+                }
+                placingTower = null;
+            }
+        }
+    }
+
+    // stops the game or carries on, and steps through the last ticks while stopped
+    private void checkRewind(@NotNull Input input){
+        if(input.wasPressed(REWIND)){
+            rewinding = !rewinding;
+            System.out.println((rewinding ? "rewinding from tick " : "carrying on from tick ") + rewindBuffer.getTick()
+                    + ", " + rewindBuffer.size() + " ticks kept in " + rewindBuffer.getMemoryUsed() / 1024 + " KB");
+        }
+        if (!rewinding){
+            return;
+        }
+        if(input.isDown(STEP_BACK)){
+            rewindBuffer.stepBack(simulation);
+        }
+        if(input.isDown(STEP_FORWARD)){
+            rewindBuffer.stepForward(simulation);
         }
-        this.incomingLevelsIter = incomingLevels.iterator();
     }
 
     private void checkInput(@NotNull Input input){
+        // check input for wave start key
+        if(input.wasPressed(WAVE_START)){
+            simulation.startWave();
+        }
+
         if(input.isDown(DEBUG_HP)){
-            Player player = Player.getPlayer();
-            player.setHp(player.getHP() + 100);
+            simulation.giveHp(100);
         }
         if(input.isDown(DEBUG_MONEY)){
-            Player player = Player.getPlayer();
-            player.transaction(5000);
+            simulation.giveMoney(5000);
+        }
+
+        if(input.wasPressed(SAVE)){
+            save();
         }
 
         // check timescale controls
         if(input.wasPressed(INCREASE_TIMESCALE)){
-            Timescale.getTimescale().incTimescale(1);
+            context.getTimescale().incTimescale(1);
+            System.out.println("timescale: " + context.getTimescale().val()
+                    + ", sustainable: ~" + getSustainableTimescale());
         }
         if(input.wasPressed(DECREASE_TIMESCALE)){
-            Timescale.getTimescale().decTimescale(1);
+            context.getTimescale().decTimescale(1);
+            System.out.println("timescale: " + context.getTimescale().val()
+                    + ", sustainable: ~" + getSustainableTimescale());
         }
     }
 }
-
@@ -0,0 +1,333 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * The state of a game of Shadow Defend, without any rendering.
+ * <p>
+ * A Simulation owns every {@link Level} and advances the active one by one tick every time it {@link #update()}s.
+ * It never touches {@link bagel.Image}s, {@link bagel.Drawing} or the {@link bagel.Window}, so it can run
+ * without a window, as fast as the machine allows. {@link ShadowDefend} draws whatever state the Simulation is in.
+ * <p>
+ * Everything the Levels of a game share, the player, the clock, the pools, is kept in its {@link GameContext}, so
+ * every Simulation is a game of its own.
+ * <p>
+ * Everything the player does to the game goes through the Simulation, starting waves, placing towers and the debugging
+ * cheats, between ticks. While an {@link InputRecorder} is set, every one of them is written to its log with the tick
+ * it happened on, so the game can be played again by an {@link InputReplayer}. While a {@link RewindBuffer} is set,
+ * every tick is kept in it, so the game can be stepped back a few seconds.
+ */
+public class Simulation {
+    /**
+     * The number of Levels to be loaded from the resource folder (/res/levels).
+     */
+    public static final int MAX_LEVEL = 2;
+
+    /**
+     * The number of ticks in a second of game time. Every tick advances the game by the same amount of time,
+     * no matter how often the game is drawn.
+     */
+    public static final int TICK_RATE = 120;
+
+    /**
+     * The length of a tick, in ns.
+     */
+    public static final long TICK_TIME = 1000000000L / TICK_RATE;
+
+    /**
+     * The tick rate some speeds are given in, speeds given per tick at this rate are scaled to {@link #TICK_RATE}.
+     */
+    public static final double BASE_TICK_RATE = 60.0;
+
+    private final GameContext context;
+    private Level activeLevel;
+    private ArrayList<Level> levels;
+    // index of the next Level to be activated
+    private int nextLevel;
+    private boolean won;
+    // null unless the player's input is being recorded
+    private InputRecorder recorder;
+    // null unless the last ticks are kept to go back to
+    private RewindBuffer rewindBuffer;
+
+    /**
+     * Instantiates a new Simulation. Loads information about all {@link Level}s, {@link Wave}s,
+     * {@link WaveEvent}s into memory.
+     */
+    public Simulation() {
+        this(MAX_LEVEL);
+    }
+
+    /**
+     * Instantiates a new Simulation with a given number of Levels.
+     *
+     * @param maxLevel the number of Levels to be loaded from the resource folder.
+     */
+    public Simulation(int maxLevel) {
+        this(new GameContext(), maxLevel);
+    }
+
+    /**
+     * Instantiates a new Simulation with a given number of Levels, in a given context. Simulations in different
+     * contexts share nothing, so they can run at the same time on different threads.
+     *
+     * @param context  the context of the game, with the player it starts with.
+     * @param maxLevel the number of Levels to be loaded from the resource folder.
+     */
+    public Simulation(@NotNull GameContext context, int maxLevel) {
+        this.context = context;
+        this.activeLevel = null;
+        this.won = false;
+        this.recorder = null;
+        this.rewindBuffer = null;
+        parseLevels(maxLevel);
+    }
+
+    /**
+     * Gets the context of the game, everything its Levels share.
+     *
+     * @return the context.
+     */
+    public GameContext getContext() {
+        return context;
+    }
+
+    /**
+     * Advances the game by one tick.
+     *
+     * @return true if the game is still going, false if the player has won or lost.
+     */
+    public boolean update() {
+        if (isOver()) {
+            return false;
+        }
+        // run everything that is due this tick
+        context.getClock().tick();
+        // if no level is active
+        if (activeLevel == null) {
+            // if no level left, the game is over
+            if (nextLevel == levels.size()) {
+                won = true;
+            }
+            else {
+                context.log("=====activating a new level=====");
+                // activate a new Level
+                activeLevel = levels.get(nextLevel++);
+                // reset player health and money
+                context.getPlayer().resetPlayer();
+            }
+        }
+        // update current level and
+        // if current level has finished, remove it
+        else {
+            if (!activeLevel.update()) {
+                if (nextLevel < levels.size()) {
+                    this.activeLevel = null;
+                }
+                else {
+                    context.log("YOU WIN!");
+                    won = true;
+                }
+            }
+        }
+        if (rewindBuffer != null) {
+            rewindBuffer.record(this);
+        }
+        return !isOver();
+    }
+
+    /**
+     * Advances the game by a number of ticks in one go, stopping early if the game ends. Used to run the ticks of
+     * a higher {@link Timescale} back to back, without anything else happening in between.
+     *
+     * @param ticks the number of ticks.
+     * @return true if the game is still going, false if the player has won or lost.
+     */
+    public boolean advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (!update()) {
+                return false;
+            }
+        }
+        return !isOver();
+    }
+
+    /**
+     * Sets where the player's input is recorded from now on.
+     *
+     * @param recorder the recorder, or null to stop recording.
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Sets where every tick is kept from now on, so the game can be stepped back to it.
+     *
+     * @param rewindBuffer the buffer, or null to stop keeping ticks.
+     */
+    public void setRewindBuffer(RewindBuffer rewindBuffer) {
+        this.rewindBuffer = rewindBuffer;
+    }
+
+    /**
+     * Starts the next {@link Wave} of the active {@link Level}.
+     */
+    public void startWave() {
+        if (recorder != null) {
+            recorder.startWave(context.getClock().now());
+        }
+        if (activeLevel != null && !isOver()) {
+            activeLevel.startWave();
+        }
+    }
+
+    /**
+     * Places a tower in the active {@link Level} if it can be placed there.
+     *
+     * @param tower the tower to be placed.
+     * @return true if the tower has been placed, false if otherwise.
+     */
+    public boolean placeTower(@NotNull Tower tower) {
+        if (recorder != null) {
+            recorder.placeTower(context.getClock().now(), tower);
+        }
+        if (activeLevel == null || isOver() || !activeLevel.isPlaceable(tower)) {
+            return false;
+        }
+        activeLevel.placeTower(tower);
+        return true;
+    }
+
+    /**
+     * Gives the player HP, a cheat for debugging.
+     *
+     * @param hp the HP given.
+     */
+    public void giveHp(int hp) {
+        if (recorder != null) {
+            recorder.giveHp(context.getClock().now(), hp);
+        }
+        Player player = context.getPlayer();
+        player.setHp(player.getHP() + hp);
+    }
+
+    /**
+     * Gives the player money, a cheat for debugging.
+     *
+     * @param money the money given.
+     */
+    public void giveMoney(int money) {
+        if (recorder != null) {
+            recorder.giveMoney(context.getClock().now(), money);
+        }
+        context.getPlayer().transaction(money);
+    }
+
+    /**
+     * Gets the active level.
+     *
+     * @return the active level, or null if the game is between Levels.
+     */
+    public Level getActiveLevel() {
+        return activeLevel;
+    }
+
+    /**
+     * Gets the number of Levels in the game.
+     *
+     * @return the number of Levels.
+     */
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    /**
+     * Gets the number of slicers that got to the end of the route alive, over every Level played so far.
+     *
+     * @return the number of leaks.
+     */
+    public int getLeakCount() {
+        int leaks = 0;
+        for (Level level : levels) {
+            leaks += level.getSlicers().getLeakCount();
+        }
+        return leaks;
+    }
+
+    /**
+     * Checks if the player has won, i.e. every Level has been cleared.
+     *
+     * @return true if the player has won, false if otherwise.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Checks if the player has lost, i.e. the player has no HP left.
+     *
+     * @return true if the player has lost, false if otherwise.
+     */
+    public boolean isLost() {
+        return context.getPlayer().isDead();
+    }
+
+    /**
+     * Checks if the game is over.
+     *
+     * @return true if the player has won or lost, false if otherwise.
+     */
+    public boolean isOver() {
+        return won || isLost();
+    }
+
+    /**
+     * Writes the state of the game to a {@link Snapshot}: its context, which Level it is on and the state of every
+     * Level. Taken between ticks.
+     *
+     * @param out where the game is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        context.save(out);
+        out.writeInt(nextLevel);
+        out.writeBoolean(won);
+        out.writeBoolean(activeLevel != null);
+        for (Level level : levels) {
+            level.save(out);
+        }
+    }
+
+    /**
+     * Puts the game in the state written by {@link #save(SnapshotWriter)}, whatever state it is in, it carries on
+     * from the tick it was saved on.
+     *
+     * @param in where the game is read from.
+     * @throws IOException if it cannot be read.
+     */
+    public void restore(@NotNull SnapshotReader in) throws IOException {
+        context.restore(in);
+        nextLevel = in.readCount(levels.size());
+        won = in.readBoolean();
+        activeLevel = null;
+        if (in.readBoolean()) {
+            if (nextLevel == 0) {
+                throw new IOException("corrupt snapshot, a Level is active before any has started");
+            }
+            activeLevel = levels.get(nextLevel - 1);
+        }
+        for (Level level : levels) {
+            level.restore(in);
+        }
+    }
+
+    // creates all levels
+    private void parseLevels(int maxLevel) {
+        this.levels = new ArrayList<>();
+        for (int i = 1; i <= maxLevel; i++) {
+            levels.add(new Level(context, i));
+        }
+        this.nextLevel = 0;
+    }
+}
@@ -0,0 +1,227 @@
+import bagel.util.Point;
+import bagel.util.Rectangle;
+import org.jetbrains.annotations.NotNull;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A uniform grid over the map of a {@link Level} that indexes every slicer in a {@link SlicerStore} by the cell it
+ * is in.
+ * <p>
+ * The grid is rebuilt once per tick, range queries from {@link ActiveTower}s and {@link Bomb}s then only look at
+ * the slicers in the cells that overlap the range, instead of every slicer in the level.
+ */
+public class SlicerGrid {
+    /**
+     * The default size of the side of a cell, in px. About the range of the shortest ranged tower.
+     */
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final Rectangle bounds;
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    // cellStart[c] .. cellStart[c + 1] is the range of cellItems that are in cell c
+    private final int[] cellStart;
+    // insertion point of each cell while rebuilding
+    private final int[] cellNext;
+    // places of slicers in the order of the store, sorted by cell, then by place
+    private int[] cellItems;
+    // the cell each slicer is in, by place
+    private int[] slicerCells;
+    private SlicerStore slicers;
+
+    /**
+     * Instantiates a new, empty grid.
+     *
+     * @param bounds   the area the grid covers, slicers outside of it are put in the nearest cell.
+     * @param cellSize the size of the side of a cell, in px.
+     */
+    public SlicerGrid(@NotNull Rectangle bounds, int cellSize) {
+        this.bounds = bounds;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil((bounds.right() - bounds.left()) / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((bounds.bottom() - bounds.top()) / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+        this.cellNext = new int[columns * rows];
+        this.cellItems = new int[0];
+        this.slicerCells = new int[0];
+        this.slicers = null;
+    }
+
+    /**
+     * Instantiates a new, empty grid with cells of the default size.
+     *
+     * @param bounds the area the grid covers.
+     */
+    public SlicerGrid(@NotNull Rectangle bounds) {
+        this(bounds, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Re-indexes the grid with the slicers given, replacing whatever was in it. Takes O(slicers + cells).
+     *
+     * @param slicers every slicer currently on the map, the grid keeps a reference to the store.
+     */
+    public void rebuild(@NotNull SlicerStore slicers) {
+        this.slicers = slicers;
+        int count = slicers.size();
+        if (cellItems.length < count) {
+            cellItems = new int[count];
+            slicerCells = new int[count];
+        }
+
+        // counting sort of the slicers by cell
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < count; i++) {
+            int slot = slicers.slotAt(i);
+            int cell = row(slicers.getY(slot)) * columns + column(slicers.getX(slot));
+            slicerCells[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        System.arraycopy(cellStart, 0, cellNext, 0, cellNext.length);
+        for (int i = 0; i < count; i++) {
+            cellItems[cellNext[slicerCells[i]]++] = i;
+        }
+    }
+
+    /**
+     * Gets the store the grid was built from.
+     *
+     * @return the slicers.
+     */
+    public SlicerStore getSlicers() {
+        return slicers;
+    }
+
+    /**
+     * Checks if the grid is empty.
+     *
+     * @return true if there are no slicers in the grid, false if otherwise.
+     */
+    public boolean isEmpty() {
+        return slicers == null || slicers.isEmpty();
+    }
+
+    /**
+     * Finds the slicer that comes first in the order of the store the grid was built from, out of the slicers within
+     * a range of a point. Slicers that have died since the grid was built, or will die from the projectiles already
+     * in flight at them, are skipped.
+     *
+     * @param centre the centre of the range.
+     * @param range  the range, in px.
+     * @return the slot of the slicer, or -1 if no slicer is in range.
+     */
+    public int firstInRange(@NotNull Point centre, double range) {
+        return firstInRange(centre, range, null);
+    }
+
+    /**
+     * Finds the first slicer within a range of a point, as {@link #firstInRange(Point, double)} does, also counting
+     * the damage committed in a buffer that has not been applied yet as in flight. Projectiles of the same tower
+     * that lose their targets in the same tick do not all turn to the same slicer.
+     *
+     * @param centre  the centre of the range.
+     * @param range   the range, in px.
+     * @param pending the buffer of the tower looking, or null.
+     * @return the slot of the slicer, or -1 if no slicer is in range.
+     */
+    public int firstInRange(@NotNull Point centre, double range, DamageBuffer pending) {
+        int first = Integer.MAX_VALUE;
+        int minColumn = column(centre.x - range);
+        int maxColumn = column(centre.x + range);
+        int minRow = row(centre.y - range);
+        int maxRow = row(centre.y + range);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                if (!cellInRange(c, r, centre, range)) {
+                    continue;
+                }
+                int cell = r * columns + c;
+                // indices in a cell are in ascending order, so the first one in range is the only candidate
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int index = cellItems[k];
+                    if (index >= first) {
+                        break;
+                    }
+                    int slot = slicers.slotAt(index);
+                    if (slicers.isAlive(slot) && !isDoomed(slot, pending) && distance(centre, slot) <= range) {
+                        first = index;
+                        break;
+                    }
+                }
+            }
+        }
+        return first == Integer.MAX_VALUE ? -1 : slicers.slotAt(first);
+    }
+
+    // checks if a slicer will die from the projectiles in flight at it, counting those only written down in a buffer
+    private boolean isDoomed(int slot, DamageBuffer pending) {
+        if (pending == null || pending.isEmpty()) {
+            return slicers.isDoomed(slot);
+        }
+        return slicers.getPendingDamage(slot) + pending.getCommittedDamage(slicers.handleOf(slot))
+                >= slicers.getHp(slot);
+    }
+
+    /**
+     * Does something to every slicer within a range of a point.
+     *
+     * @param centre the centre of the range.
+     * @param range  the range, in px.
+     * @param action what is done, given the slot of each slicer in range.
+     */
+    public void forEachInRange(@NotNull Point centre, double range, @NotNull IntConsumer action) {
+        int minColumn = column(centre.x - range);
+        int maxColumn = column(centre.x + range);
+        int minRow = row(centre.y - range);
+        int maxRow = row(centre.y + range);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                if (!cellInRange(c, r, centre, range)) {
+                    continue;
+                }
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int slot = slicers.slotAt(cellItems[k]);
+                    if (distance(centre, slot) <= range) {
+                        action.accept(slot);
+                    }
+                }
+            }
+        }
+    }
+
+    private double distance(Point centre, int slot) {
+        double dx = slicers.getX(slot) - centre.x;
+        double dy = slicers.getY(slot) - centre.y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // checks if any part of a cell is within a range of a point, border cells also hold everything beyond them
+    private boolean cellInRange(int column, int row, Point centre, double range) {
+        double left = column == 0 ? Double.NEGATIVE_INFINITY : bounds.left() + column * cellSize;
+        double right = column == columns - 1 ? Double.POSITIVE_INFINITY : bounds.left() + (column + 1) * cellSize;
+        double top = row == 0 ? Double.NEGATIVE_INFINITY : bounds.top() + row * cellSize;
+        double bottom = row == rows - 1 ? Double.POSITIVE_INFINITY : bounds.top() + (row + 1) * cellSize;
+        double dx = Math.max(0, Math.max(left - centre.x, centre.x - right));
+        double dy = Math.max(0, Math.max(top - centre.y, centre.y - bottom));
+        // a little slack so rounding never drops a cell, the exact check is done per slicer
+        return dx * dx + dy * dy <= (range + 1) * (range + 1);
+    }
+
+    // column of an x coordinate, clamped to the grid
+    private int column(double x) {
+        int column = (int) Math.floor((x - bounds.left()) / cellSize);
+        return Math.min(Math.max(column, 0), columns - 1);
+    }
+
+    // row of a y coordinate, clamped to the grid
+    private int row(double y) {
+        int row = (int) Math.floor((y - bounds.top()) / cellSize);
+        return Math.min(Math.max(row, 0), rows - 1);
+    }
+}
@@ -0,0 +1,750 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Every slicer on the map of a {@link Level}, kept as parallel arrays of primitives, one array per property.
+ * <p>
+ * A slicer is a slot, an index into every array. Slots are reused once their slicer is gone. Anything that holds on
+ * to a slicer across ticks holds a handle instead, the slot packed with the generation of the slot, which goes up
+ * every time the slot is freed, so a handle to a slicer that is gone is told apart from one to whatever took its slot
+ * in O(1).
+ * <p>
+ * The slots of the slicers on the map are also kept in a list, furthest along the route first, with the slicers
+ * spawned by a dead slicer taking its place. Slicers barely overtake each other in a tick, so the list is kept in
+ * order by an insertion sort after every move, which takes O(n) plus the number of overtakes. Everything that goes
+ * through every slicer, moving, indexing, drawing, goes through that list and reads only the arrays it needs, and
+ * a {@link ProgressIndex} over it picks targets.
+ * <p>
+ * What every slicer of a type has in common is kept in its {@link SlicerType}.
+ * <p>
+ * The store is its own pool: the slot of a slicer that is gone goes to a free list and is handed to the next slicer
+ * spawned, so the arrays only grow when more slicers are on the map at once than ever before.
+ * <p>
+ * Every slicer moves on its own, so once there are enough of them the moves are split into runs of the order and
+ * done on every core. Whatever is left to do afterwards, spawning, leaving the map, adding up penalties, is done on
+ * one thread in the order of the store, so a tick plays out the same whether the slicers were moved in parallel or
+ * not.
+ */
+public class SlicerStore {
+    /**
+     * The owner of slicers that do not belong to any {@link WaveEvent}.
+     */
+    public static final int NO_OWNER = -1;
+    /**
+     * A handle that refers to no slicer.
+     */
+    public static final int NO_HANDLE = -1;
+    // a handle is the generation above the slot, the sign bit is never set
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+    /**
+     * The most slicers that can be on the map at once.
+     */
+    public static final int MAX_SLOTS = 1 << SLOT_BITS;
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * The fewest slicers that are moved in parallel by default, below that handing the moves to other threads takes
+     * longer than making them.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16384;
+    // slicers moved by one thread at a time
+    private static final int PARTITION_SIZE = 4096;
+    private static final SlicerType[] TYPES = SlicerType.values();
+
+    private final Route route;
+    // one entry per slot
+    private double[] xs;
+    private double[] ys;
+    private double[] progresses; // px along the route
+    private double[] speeds; // px/tick
+    private int[] segments;
+    private int[] hps;
+    // damage of the projectiles in flight at each slicer
+    private int[] pendingDamages;
+    private int[] owners;
+    private int[] generations;
+    private byte[] types;
+    private boolean[] alive;
+    // slots that are free to be reused, as a stack
+    private int[] freeSlots;
+    private int freeCount;
+    // number of slots ever used
+    private int slotCount;
+    // slots of the slicers on the map, furthest along first
+    private int[] order;
+    private int count;
+    // scratch list the order is rebuilt in every update
+    private int[] nextOrder;
+    // number of slicers on the map per owner
+    private int[] ownerCounts;
+    private int ownerCount;
+    private int spawnCount;
+    private int leakCount;
+    // rewards for kills not yet paid to the player
+    private int reward;
+    // penalties for leaks not yet dealt to the player
+    private int penalty;
+    private int parallelThreshold;
+    private final ProgressIndex index;
+
+    /**
+     * Instantiates a new, empty SlicerStore.
+     *
+     * @param route the route every slicer in the store traverses.
+     */
+    public SlicerStore(@NotNull Route route) {
+        this.route = route;
+        this.xs = new double[INITIAL_CAPACITY];
+        this.ys = new double[INITIAL_CAPACITY];
+        this.progresses = new double[INITIAL_CAPACITY];
+        this.speeds = new double[INITIAL_CAPACITY];
+        this.segments = new int[INITIAL_CAPACITY];
+        this.hps = new int[INITIAL_CAPACITY];
+        this.pendingDamages = new int[INITIAL_CAPACITY];
+        this.owners = new int[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.types = new byte[INITIAL_CAPACITY];
+        this.alive = new boolean[INITIAL_CAPACITY];
+        this.freeSlots = new int[INITIAL_CAPACITY];
+        this.order = new int[INITIAL_CAPACITY];
+        this.nextOrder = new int[INITIAL_CAPACITY];
+        this.ownerCounts = new int[8];
+        this.ownerCount = 0;
+        this.spawnCount = 0;
+        this.leakCount = 0;
+        this.reward = 0;
+        this.penalty = 0;
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        this.index = new ProgressIndex(this);
+    }
+
+    /**
+     * Gets the route every slicer in the store traverses.
+     *
+     * @return the route.
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Gets the index of the slicers by how far along the route they are.
+     *
+     * @return the index.
+     */
+    public ProgressIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Registers a new owner of slicers, the store keeps count of how many slicers each owner has on the map.
+     *
+     * @return the id of the owner.
+     */
+    public int newOwner() {
+        if (ownerCount == ownerCounts.length) {
+            ownerCounts = Arrays.copyOf(ownerCounts, ownerCount * 2);
+        }
+        return ownerCount++;
+    }
+
+    /**
+     * Gets the number of slicers an owner has on the map, including the ones spawned by its slicers.
+     *
+     * @param owner the id of the owner.
+     * @return the number of slicers.
+     */
+    public int countOf(int owner) {
+        return ownerCounts[owner];
+    }
+
+    /**
+     * Spawns a slicer at the start of the route.
+     *
+     * @param type  the type of the slicer.
+     * @param owner the id of the owner of the slicer, or {@link #NO_OWNER}.
+     * @return the slot of the slicer.
+     */
+    public int spawn(@NotNull SlicerType type, int owner) {
+        return spawn(type, owner, 0, 0);
+    }
+
+    /**
+     * Spawns a slicer a given distance along the route, after every other slicer on the map that is as far along.
+     *
+     * @param type     the type of the slicer.
+     * @param owner    the id of the owner of the slicer, or {@link #NO_OWNER}.
+     * @param progress the distance along the route, in px.
+     * @return the slot of the slicer.
+     */
+    public int spawn(@NotNull SlicerType type, int owner, double progress) {
+        return spawn(type, owner, route.segmentAt(progress, 0), progress);
+    }
+
+    /**
+     * Gets the number of slicers on the map.
+     *
+     * @return the number of slicers.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Checks if there are no slicers on the map.
+     *
+     * @return true if there are none, false if otherwise.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Gets the slot of the slicer at a given place in the order of the store, furthest along the route first.
+     *
+     * @param index the place, from 0 to {@link #size()} - 1.
+     * @return the slot.
+     */
+    public int slotAt(int index) {
+        return order[index];
+    }
+
+    /**
+     * Gets the x coordinate of where a slicer is on the map.
+     *
+     * @param slot the slot of the slicer.
+     * @return the x coordinate, in px.
+     */
+    public double getX(int slot) {
+        return xs[slot];
+    }
+
+    /**
+     * Gets the y coordinate of where a slicer is on the map.
+     *
+     * @param slot the slot of the slicer.
+     * @return the y coordinate, in px.
+     */
+    public double getY(int slot) {
+        return ys[slot];
+    }
+
+    /**
+     * Gets the distance a slicer has travelled along the route.
+     *
+     * @param slot the slot of the slicer.
+     * @return the distance, in px.
+     */
+    public double getProgress(int slot) {
+        return progresses[slot];
+    }
+
+    /**
+     * Gets the distance a slicer travels along the route every tick.
+     *
+     * @param slot the slot of the slicer.
+     * @return the speed, in px per tick.
+     */
+    public double getSpeed(int slot) {
+        return speeds[slot];
+    }
+
+    /**
+     * Gets the segment of the route a slicer is on.
+     *
+     * @param slot the slot of the slicer.
+     * @return the index of the segment.
+     */
+    public int getSegment(int slot) {
+        return segments[slot];
+    }
+
+    /**
+     * Gets the HP a slicer has left.
+     *
+     * @param slot the slot of the slicer.
+     * @return the HP.
+     */
+    public int getHp(int slot) {
+        return hps[slot];
+    }
+
+    /**
+     * Gets the type of a slicer.
+     *
+     * @param slot the slot of the slicer.
+     * @return the type.
+     */
+    public SlicerType getType(int slot) {
+        return TYPES[types[slot]];
+    }
+
+    /**
+     * Gets a handle to the slicer in a slot, which stays valid as long as the slicer is alive.
+     *
+     * @param slot the slot of the slicer.
+     * @return the handle.
+     */
+    public int handleOf(int slot) {
+        return generations[slot] << SLOT_BITS | slot;
+    }
+
+    /**
+     * Gets the slot a handle refers to, whether or not the slicer is still in it.
+     *
+     * @param handle the handle.
+     * @return the slot.
+     */
+    public static int slotOf(int handle) {
+        return handle & SLOT_MASK;
+    }
+
+    /**
+     * Checks if the slicer a handle refers to is still alive. Takes O(1).
+     *
+     * @param handle the handle, or {@link #NO_HANDLE}.
+     * @return true if the slicer is alive, false if it has died, left the map, or the handle refers to nothing.
+     */
+    public boolean isValid(int handle) {
+        if (handle == NO_HANDLE) {
+            return false;
+        }
+        int slot = handle & SLOT_MASK;
+        return slot < slotCount && generations[slot] == handle >>> SLOT_BITS && alive[slot];
+    }
+
+    /**
+     * Checks if a slicer is alive. A slicer that has died stays on the map until the next {@link #update()}.
+     *
+     * @param slot the slot of the slicer.
+     * @return true if the slicer is alive, false if otherwise.
+     */
+    public boolean isAlive(int slot) {
+        return alive[slot];
+    }
+
+    /**
+     * Gets the damage that projectiles in flight will deal to a slicer once they land.
+     *
+     * @param slot the slot of the slicer.
+     * @return the damage.
+     */
+    public int getPendingDamage(int slot) {
+        return pendingDamages[slot];
+    }
+
+    /**
+     * Checks if a slicer will die from the projectiles already in flight at it, there is no point shooting it again.
+     *
+     * @param slot the slot of the slicer.
+     * @return true if the pending damage is at least its HP, false if otherwise.
+     */
+    public boolean isDoomed(int slot) {
+        return pendingDamages[slot] >= hps[slot];
+    }
+
+    /**
+     * Records that a projectile is in flight at a slicer. Takes O(1).
+     *
+     * @param handle the handle of the slicer.
+     * @param damage the damage the projectile will deal.
+     */
+    public void commitDamage(int handle, int damage) {
+        pendingDamages[handle & SLOT_MASK] += damage;
+        index.changed(handle & SLOT_MASK);
+    }
+
+    /**
+     * Records that a projectile in flight at a slicer has landed or given up on it. Does nothing if the slot has
+     * been given to another slicer since. Takes O(1).
+     *
+     * @param handle the handle of the slicer.
+     * @param damage the damage that was committed.
+     */
+    public void withdrawDamage(int handle, int damage) {
+        int slot = handle & SLOT_MASK;
+        if (generations[slot] == handle >>> SLOT_BITS) {
+            pendingDamages[slot] -= damage;
+            index.changed(slot);
+        }
+    }
+
+    /**
+     * Deducts an amount of HP from a slicer. If the slicer dies, its reward is added to the rewards to be paid to the
+     * player, see {@link #collectReward()}.
+     *
+     * @param slot   the slot of the slicer.
+     * @param damage the amount of HP to be deducted.
+     * @return true if the slicer is still alive afterwards, false if otherwise.
+     */
+    public boolean damage(int slot, int damage) {
+        if (!alive[slot]) {
+            return false;
+        }
+        hps[slot] -= damage;
+        if (hps[slot] > 0) {
+            index.changed(slot);
+            return true;
+        }
+        alive[slot] = false;
+        index.changed(slot);
+        reward += getType(slot).getReward();
+        return false;
+    }
+
+    /**
+     * Takes the rewards for every slicer killed since the last time they were collected, to be paid to the player
+     * in one go.
+     *
+     * @return the sum of the rewards.
+     */
+    public int collectReward() {
+        int collected = reward;
+        reward = 0;
+        return collected;
+    }
+
+    /**
+     * Gets the number of slots ever used, the most slicers that were ever on the map at once.
+     *
+     * @return the number of slots.
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Gets the number of slicers ever spawned in the store.
+     *
+     * @return the number of spawns.
+     */
+    public int getSpawnCount() {
+        return spawnCount;
+    }
+
+    /**
+     * Gets the number of slicers that ever got to the end of the route alive.
+     *
+     * @return the number of leaks.
+     */
+    public int getLeakCount() {
+        return leakCount;
+    }
+
+    /**
+     * Summarises how the store reuses its slots in one line, for logging, in the same form as {@link Pool#report()}.
+     * Every slot was created by a spawn that found no free slot, a miss.
+     *
+     * @return the summary.
+     */
+    public String report() {
+        return "slicer pool: " + freeCount + " free, " + count + " in use, " + slotCount + " at most, "
+                + spawnCount + " acquires, " + slotCount + " misses";
+    }
+
+    /**
+     * Gets the fewest slicers that are moved in parallel.
+     *
+     * @return the number of slicers.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the fewest slicers that are moved in parallel.
+     *
+     * @param parallelThreshold the number of slicers, 0 to always and {@link Integer#MAX_VALUE} to never move them in
+     *                          parallel.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Takes the penalties for every slicer that got to the end of the route since the last time they were collected,
+     * to be dealt to the player in one go. Penalties are never negative, so the player ends up with the same HP as if
+     * they were dealt one by one.
+     *
+     * @return the sum of the penalties.
+     */
+    public int collectPenalty() {
+        int collected = penalty;
+        penalty = 0;
+        return collected;
+    }
+
+    /**
+     * Moves every slicer along the route by one tick. Slicers that get to the end of the route alive leave the map
+     * and add their penalty to the ones to be dealt to the player, see {@link #collectPenalty()}. Slicers that have
+     * died leave the map and the slicers they spawn take their place.
+     */
+    public void update() {
+        double length = route.getLength();
+        if (count >= parallelThreshold) {
+            int partitions = (count + PARTITION_SIZE - 1) / PARTITION_SIZE;
+            IntStream.range(0, partitions).parallel().forEach(partition ->
+                    move(partition * PARTITION_SIZE, Math.min(count, (partition + 1) * PARTITION_SIZE), length));
+        }
+        else {
+            move(0, count, length);
+        }
+
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = order[i];
+            double progress = progresses[slot];
+            if (!alive[slot]) {
+                // spawn whatever the slicer spawns where it is
+                SlicerType type = getType(slot);
+                int segment = route.segmentAt(progress, segments[slot]);
+                for (int j = 0; j < type.getSpawnCount(); j++) {
+                    next = append(next, spawnSlot(type.getSpawnType(), owners[slot], segment, progress));
+                }
+                release(slot);
+            }
+            else if (progress > length) {
+                // finished traversing alive
+                penalty += getType(slot).getPenalty();
+                leakCount++;
+                release(slot);
+            }
+            else {
+                next = append(next, slot);
+            }
+        }
+        int[] swap = order;
+        order = nextOrder;
+        nextOrder = swap;
+        count = next;
+        sort();
+        index.invalidate();
+    }
+
+    /**
+     * Writes every slicer in the store, and everything the store keeps count of, to a {@link Snapshot}. Only what
+     * cannot be worked out again is written, a slicer's position and speed follow from its progress and type.
+     *
+     * @param out where the store is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeInt(slotCount);
+        out.writeDoubles(progresses, slotCount);
+        out.writeInts(segments, slotCount);
+        out.writeInts(hps, slotCount);
+        out.writeInts(pendingDamages, slotCount);
+        out.writeInts(owners, slotCount);
+        out.writeInts(generations, slotCount);
+        out.writeBytes(types, slotCount);
+        out.writeBooleans(alive, slotCount);
+        out.writeInt(freeCount);
+        out.writeInts(freeSlots, freeCount);
+        out.writeInt(count);
+        out.writeInts(order, count);
+        out.writeInt(ownerCount);
+        out.writeInts(ownerCounts, ownerCount);
+        out.writeInt(spawnCount);
+        out.writeInt(leakCount);
+        out.writeInt(reward);
+        out.writeInt(penalty);
+    }
+
+    /**
+     * Replaces every slicer in the store with the ones written by {@link #save(SnapshotWriter)}. The slots, handles
+     * and order are the same as they were, so anything that held a handle holds the same slicer.
+     *
+     * @param in where the store is read from.
+     * @throws IOException if it cannot be read or does not make sense.
+     */
+    public void restore(@NotNull SnapshotReader in) throws IOException {
+        int slots = in.readCount(MAX_SLOTS);
+        int capacity = Math.max(INITIAL_CAPACITY, slots);
+        xs = new double[capacity];
+        ys = new double[capacity];
+        progresses = new double[capacity];
+        speeds = new double[capacity];
+        segments = new int[capacity];
+        hps = new int[capacity];
+        pendingDamages = new int[capacity];
+        owners = new int[capacity];
+        generations = new int[capacity];
+        types = new byte[capacity];
+        alive = new boolean[capacity];
+        slotCount = slots;
+        in.readDoubles(progresses, slots);
+        in.readInts(segments, slots);
+        in.readInts(hps, slots);
+        in.readInts(pendingDamages, slots);
+        in.readInts(owners, slots);
+        in.readInts(generations, slots);
+        in.readBytes(types, slots);
+        in.readBooleans(alive, slots);
+
+        freeCount = in.readCount(slots);
+        freeSlots = new int[capacity];
+        in.readInts(freeSlots, freeCount);
+        count = in.readCount(slots);
+        order = new int[capacity];
+        nextOrder = new int[capacity];
+        in.readInts(order, count);
+        ownerCount = in.readCount(Integer.MAX_VALUE);
+        ownerCounts = new int[Math.max(8, ownerCount)];
+        in.readInts(ownerCounts, ownerCount);
+        spawnCount = in.readInt();
+        leakCount = in.readInt();
+        reward = in.readInt();
+        penalty = in.readInt();
+
+        for (int slot = 0; slot < slots; slot++) {
+            if (types[slot] < 0 || types[slot] >= TYPES.length
+                    || segments[slot] < 0 || segments[slot] >= route.getSegmentCount()) {
+                throw new IOException("corrupt snapshot, slot " + slot + " is not a slicer");
+            }
+            speeds[slot] = getType(slot).getSpeed();
+        }
+        for (int i = 0; i < freeCount; i++) {
+            if (freeSlots[i] < 0 || freeSlots[i] >= slots) {
+                throw new IOException("corrupt snapshot, free slot " + freeSlots[i] + " out of range");
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int slot = order[i];
+            if (slot < 0 || slot >= slots) {
+                throw new IOException("corrupt snapshot, slot " + slot + " out of range");
+            }
+            place(slot, segments[slot], progresses[slot]);
+        }
+        index.invalidate();
+    }
+
+    /**
+     * Removes every slicer from the map.
+     */
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            release(order[i]);
+        }
+        count = 0;
+        index.invalidate();
+    }
+
+    private int spawn(SlicerType type, int owner, int segment, double progress) {
+        int slot = spawnSlot(type, owner, segment, progress);
+        if (count == order.length) {
+            order = Arrays.copyOf(order, count * 2);
+        }
+        // after every slicer at least as far along
+        int i = count++;
+        while (i > 0 && progresses[order[i - 1]] < progress) {
+            order[i] = order[i - 1];
+            i--;
+        }
+        order[i] = slot;
+        index.invalidate();
+        return slot;
+    }
+
+    // moves the slicers at the places [from, to) of the order, only writing to their own slots
+    private void move(int from, int to, double length) {
+        for (int i = from; i < to; i++) {
+            int slot = order[i];
+            double progress = progresses[slot] + speeds[slot];
+            progresses[slot] = progress;
+            // the dead and the ones that got to the end are dealt with afterwards, in order
+            if (alive[slot] && progress <= length) {
+                place(slot, route.segmentAt(progress, segments[slot]), progress);
+            }
+        }
+    }
+
+    // puts the order back in order after slicers have moved, slicers that are as far along keep their places
+    private void sort() {
+        for (int i = 1; i < count; i++) {
+            int slot = order[i];
+            double progress = progresses[slot];
+            int j = i;
+            while (j > 0 && progresses[order[j - 1]] < progress) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = slot;
+        }
+    }
+
+    // fills a free slot with a new slicer, without putting it in the order
+    private int spawnSlot(SlicerType type, int owner, int segment, double progress) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        }
+        else {
+            if (slotCount == MAX_SLOTS) {
+                throw new IllegalStateException("more than " + MAX_SLOTS + " slicers on the map");
+            }
+            if (slotCount == xs.length) {
+                grow(Math.min(slotCount * 2, MAX_SLOTS));
+            }
+            slot = slotCount++;
+        }
+        types[slot] = (byte) type.ordinal();
+        speeds[slot] = type.getSpeed();
+        hps[slot] = type.getHp();
+        pendingDamages[slot] = 0;
+        alive[slot] = true;
+        owners[slot] = owner;
+        spawnCount++;
+        progresses[slot] = progress;
+        place(slot, segment, progress);
+        if (owner != NO_OWNER) {
+            ownerCounts[owner]++;
+        }
+        return slot;
+    }
+
+    // puts a slicer at a point on the route
+    private void place(int slot, int segment, double progress) {
+        segments[slot] = segment;
+        xs[slot] = route.getX(segment, progress);
+        ys[slot] = route.getY(segment, progress);
+    }
+
+    private void release(int slot) {
+        alive[slot] = false;
+        // every handle to the slicer is now stale
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        if (owners[slot] != NO_OWNER) {
+            ownerCounts[owners[slot]]--;
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // puts a slot at the given place of the order being rebuilt
+    private int append(int index, int slot) {
+        if (index == nextOrder.length) {
+            nextOrder = Arrays.copyOf(nextOrder, index * 2);
+        }
+        nextOrder[index] = slot;
+        return index + 1;
+    }
+
+    private void grow(int capacity) {
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        progresses = Arrays.copyOf(progresses, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        segments = Arrays.copyOf(segments, capacity);
+        hps = Arrays.copyOf(hps, capacity);
+        pendingDamages = Arrays.copyOf(pendingDamages, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        types = Arrays.copyOf(types, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+    }
+}
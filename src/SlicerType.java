@@ -0,0 +1,126 @@
+/**
+ * The types of slicers, the enemies of the game. Everything every slicer of a type has in common is kept here, a
+ * {@link SlicerStore} only keeps what is different for each slicer.
+ */
+public enum SlicerType {
+    /**
+     * The most basic enemy, does not spawn on death.
+     */
+    REGULAR("slicer", "res/images/slicer.png", 2, 1, 2, 1, null, 0),
+    /**
+     * Spawns 2 {@link #REGULAR} slicers on death.
+     */
+    SUPER("superslicer", "res/images/superslicer.png", 1.5, 1, 15, 0, REGULAR, 2),
+    /**
+     * Spawns 2 {@link #SUPER} slicers on death.
+     */
+    MEGA("megaslicer", "res/images/megaslicer.png", 1.5, 2, 10, 0, SUPER, 2),
+    /**
+     * Spawns 4 {@link #MEGA} slicers on death.
+     */
+    APEX("apexslicer", "res/images/apexslicer.png", 0.75, 25, 150, 0, MEGA, 4);
+
+    private final String name;
+    private final String imageSrc;
+    private final double speed; // px/tick
+    private final int hp;
+    private final int reward;
+    private final int penalty;
+    private final SlicerType spawnType;
+    private final int spawnCount;
+
+    SlicerType(String name, String imageSrc, double speed, int hp, int reward, int penalty,
+               SlicerType spawnType, int spawnCount) {
+        this.name = name;
+        this.imageSrc = imageSrc;
+        this.speed = speed;
+        this.hp = hp;
+        this.reward = reward;
+        // a slicer that spawns others costs the player what everything it spawns would
+        this.penalty = spawnType == null ? penalty : spawnCount * spawnType.penalty;
+        this.spawnType = spawnType;
+        this.spawnCount = spawnCount;
+    }
+
+    /**
+     * Finds the type of slicer with a given name, as used in the waves file.
+     *
+     * @param name the name, e.g. "superslicer".
+     * @return the type, or null if no type has the name.
+     */
+    public static SlicerType fromName(String name) {
+        for (SlicerType type : values()) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the name of the type, as used in the waves file.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getImageSrc() {
+        return imageSrc;
+    }
+
+    /**
+     * Gets the speed slicers of this type start with.
+     *
+     * @return the speed, in px per tick.
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Gets the HP slicers of this type start with.
+     *
+     * @return the HP.
+     */
+    public int getHp() {
+        return hp;
+    }
+
+    /**
+     * Gets the money the player gets for killing a slicer of this type.
+     *
+     * @return the reward.
+     */
+    public int getReward() {
+        return reward;
+    }
+
+    /**
+     * Gets the damage a slicer of this type deals to the player if it gets to the end of its route.
+     *
+     * @return the damage.
+     */
+    public int getPenalty() {
+        return penalty;
+    }
+
+    /**
+     * Gets the type of the slicers spawned when a slicer of this type dies.
+     *
+     * @return the type, or null if nothing is spawned.
+     */
+    public SlicerType getSpawnType() {
+        return spawnType;
+    }
+
+    /**
+     * Gets the number of slicers spawned when a slicer of this type dies.
+     *
+     * @return the number of slicers.
+     */
+    public int getSpawnCount() {
+        return spawnCount;
+    }
+}
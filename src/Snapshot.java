@@ -0,0 +1,105 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Saves a game of Shadow Defend to a file and resumes it, on the tick it was saved on, without playing it again.
+ * <p>
+ * A snapshot is taken between ticks and holds everything that changes as the game is played: the {@link GameContext}
+ * (the tick, the player's HP and money, where the random numbers are up to), which {@link Level} and {@link Wave} the
+ * game is on and how far every {@link WaveEvent} has got, and for every Level, every slicer in its
+ * {@link SlicerStore} and every tower with its projectiles and bombs. Every task waiting in the {@link GameClock}, a
+ * reload, a fuse, the next spawn, is written by whatever scheduled it, with its place in the clock, so tasks due on
+ * the same tick still run in the same order.
+ * A resumed game plays out the same as if it had never been saved.
+ * <p>
+ * The maps and waves are not saved, they are read from the resources as they are for a new game. The slicers are
+ * written as whole arrays, so a snapshot of tens of thousands of slicers is a few MB and takes milliseconds to write,
+ * through a {@link SnapshotWriter}, and to read, through a {@link SnapshotReader}.
+ * <p>
+ * Usage: {@code java Snapshot snapshot}, run from the project root, loads a snapshot and prints what it holds.
+ */
+public final class Snapshot {
+    /**
+     * The first 4 bytes of every snapshot, "SDSS".
+     */
+    public static final int MAGIC = 0x53445353;
+
+    /**
+     * The version of the format, written after the magic number.
+     */
+    public static final int VERSION = 2;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Saves a game to a file, replacing it if it exists.
+     *
+     * @param simulation the game, between ticks.
+     * @param path       the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(@NotNull Simulation simulation, @NotNull Path path) throws IOException {
+        try (SnapshotWriter out = new SnapshotWriter(path)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(simulation.getLevelCount());
+            out.writeLong(simulation.getContext().getSeed());
+            simulation.save(out);
+        }
+    }
+
+    /**
+     * Resumes a game saved to a file.
+     *
+     * @param path the path of the file.
+     * @return the game, on the tick it was saved on, in a context of its own.
+     * @throws IOException if the file cannot be read or is not a snapshot.
+     */
+    public static Simulation load(@NotNull Path path) throws IOException {
+        SnapshotReader in = new SnapshotReader(path);
+        if (in.readInt() != MAGIC) {
+            throw new IOException(path + " is not a snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException(path + " has version " + version + ", expected " + VERSION);
+        }
+        int levels = in.readCount(Simulation.MAX_LEVEL);
+        Simulation simulation = new Simulation(new GameContext(in.readLong()), levels);
+        simulation.restore(in);
+        return simulation;
+    }
+
+    /**
+     * Entry point of the snapshot viewer, see the class description for usage.
+     *
+     * @param args the path of the snapshot.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("usage: java Snapshot snapshot");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        Simulation simulation;
+        try {
+            simulation = load(Paths.get(args[0]));
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+
+        GameContext context = simulation.getContext();
+        Level level = simulation.getActiveLevel();
+        System.out.println(args[0] + ": tick " + context.getClock().now() + ", hp=" + context.getPlayer().getHP()
+                + " money=" + context.getPlayer().getMoney() + ", "
+                + (level == null ? "between levels" : "level " + level.getLv() + " wave " + level.getWaveNumber()
+                + ", " + level.getSlicers().size() + " slicers, " + level.getTowers().size() + " towers")
+                + ", loaded in " + nanos / 1000000 + " ms");
+    }
+}
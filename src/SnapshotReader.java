@@ -0,0 +1,171 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the binary form of a {@link Snapshot} written by a {@link SnapshotWriter}. The file is mapped into memory and
+ * read straight from the mapping, arrays in bulk, without copying it into the heap first. A snapshot already in
+ * memory is read from its buffer.
+ */
+public class SnapshotReader {
+    private final ByteBuffer buffer;
+
+    /**
+     * Instantiates a new SnapshotReader.
+     *
+     * @param path the path of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public SnapshotReader(@NotNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid once the channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Instantiates a SnapshotReader that reads a snapshot in memory, e.g. from {@link SnapshotWriter#getBytes()}.
+     *
+     * @param bytes the snapshot, from its position to its limit, which are left as they are.
+     */
+    public SnapshotReader(@NotNull ByteBuffer bytes) {
+        this.buffer = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public int readByte() throws IOException {
+        ensure(1);
+        return buffer.get() & 0xFF;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readInt() throws IOException {
+        ensure(4);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        ensure(8);
+        return buffer.getLong();
+    }
+
+    public double readDouble() throws IOException {
+        ensure(8);
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads a count, a number of entries to follow.
+     *
+     * @param max the most there can be.
+     * @return the count.
+     * @throws IOException if it cannot be read, or is negative or more than the most.
+     */
+    public int readCount(int max) throws IOException {
+        int count = readInt();
+        if (count < 0 || count > max) {
+            throw new IOException("corrupt snapshot, count " + count + " out of range");
+        }
+        return count;
+    }
+
+    /**
+     * Reads entries written by {@link SnapshotWriter#writeInts(int[], int)} into the start of an array.
+     *
+     * @param values the array, at least as long as the number of entries.
+     * @param length the number of entries.
+     * @throws IOException if they cannot be read.
+     */
+    public void readInts(@NotNull int[] values, int length) throws IOException {
+        ensure(4L * length);
+        buffer.asIntBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + 4 * length);
+    }
+
+    /**
+     * Reads entries written by {@link SnapshotWriter#writeDoubles(double[], int)} into the start of an array.
+     *
+     * @param values the array, at least as long as the number of entries.
+     * @param length the number of entries.
+     * @throws IOException if they cannot be read.
+     */
+    public void readDoubles(@NotNull double[] values, int length) throws IOException {
+        ensure(8L * length);
+        buffer.asDoubleBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + 8 * length);
+    }
+
+    /**
+     * Reads entries written by {@link SnapshotWriter#writeBytes(byte[], int)} into the start of an array.
+     *
+     * @param values the array, at least as long as the number of entries.
+     * @param length the number of entries.
+     * @throws IOException if they cannot be read.
+     */
+    public void readBytes(@NotNull byte[] values, int length) throws IOException {
+        ensure(length);
+        buffer.get(values, 0, length);
+    }
+
+    /**
+     * Reads entries written by {@link SnapshotWriter#writeBooleans(boolean[], int)} into the start of an array.
+     *
+     * @param values the array, at least as long as the number of entries.
+     * @param length the number of entries.
+     * @throws IOException if they cannot be read.
+     */
+    public void readBooleans(@NotNull boolean[] values, int length) throws IOException {
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            values[i] = buffer.get() != 0;
+        }
+    }
+
+    /**
+     * Reads a task written by {@link SnapshotWriter#writeTimeout(TimingWheel.Timeout)} and puts it back in a clock,
+     * in the same place.
+     *
+     * @param clock the clock, at the tick the snapshot was taken on.
+     * @param task  what the task does.
+     * @return the task, or null if nothing was scheduled.
+     * @throws IOException if it cannot be read, or does not fit in the clock.
+     */
+    public TimingWheel.Timeout readTimeout(@NotNull GameClock clock, @NotNull Runnable task) throws IOException {
+        if (!readBoolean()) {
+            return null;
+        }
+        long deadline = readLong();
+        int bucket = readInt();
+        long sequence = readLong();
+        try {
+            return clock.restore(deadline, bucket, sequence, task);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("corrupt snapshot, " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a stream of random numbers written by {@link SnapshotWriter#writeRandom(GameRandom)}.
+     *
+     * @return the stream, where it was up to.
+     * @throws IOException if it cannot be read.
+     */
+    public GameRandom readRandom() throws IOException {
+        long seed = readLong();
+        return new GameRandom(seed, readLong());
+    }
+
+    // fails with an IOException instead of a BufferUnderflowException on a file that is cut short
+    private void ensure(long bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            throw new IOException("corrupt snapshot, ends early");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the binary form of a {@link Snapshot} to a file, through a buffer outside the heap that is handed to a
+ * {@link FileChannel} whenever it fills up. Arrays are copied into the buffer in bulk, so the slicers of a big wave
+ * are written at about the speed of the disk.
+ * <p>
+ * A SnapshotWriter can also write to memory, into a buffer that grows as needed and can be written again and again,
+ * as the {@link RewindBuffer} does every tick.
+ * <p>
+ * Numbers are written little endian, the order of the machines the game runs on.
+ */
+public class SnapshotWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // null when writing to memory
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+
+    /**
+     * Instantiates a new SnapshotWriter, replacing the file if it exists.
+     *
+     * @param path the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public SnapshotWriter(@NotNull Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Instantiates a SnapshotWriter that writes to memory, see {@link #getBytes()}.
+     */
+    public SnapshotWriter() {
+        this.channel = null;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets what has been written to memory since the writer was made or last reset.
+     *
+     * @return the bytes, from position 0 to the limit, backed by the array of the writer until it is written to again.
+     * @throws IllegalStateException if the writer writes to a file.
+     */
+    public ByteBuffer getBytes() {
+        if (channel != null) {
+            throw new IllegalStateException("the snapshot is written to a file");
+        }
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * Forgets what has been written to memory, to write another snapshot into the same buffer.
+     */
+    public void reset() {
+        buffer.clear();
+    }
+
+    public void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes the first entries of an array, without their number.
+     *
+     * @param values the array.
+     * @param length the number of entries written.
+     * @throws IOException if they cannot be written.
+     */
+    public void writeInts(@NotNull int[] values, int length) throws IOException {
+        for (int i = 0; i < length; ) {
+            ensure(4);
+            int chunk = Math.min(length - i, buffer.remaining() / 4);
+            buffer.asIntBuffer().put(values, i, chunk);
+            buffer.position(buffer.position() + 4 * chunk);
+            i += chunk;
+        }
+    }
+
+    /**
+     * Writes the first entries of an array, without their number.
+     *
+     * @param values the array.
+     * @param length the number of entries written.
+     * @throws IOException if they cannot be written.
+     */
+    public void writeDoubles(@NotNull double[] values, int length) throws IOException {
+        for (int i = 0; i < length; ) {
+            ensure(8);
+            int chunk = Math.min(length - i, buffer.remaining() / 8);
+            buffer.asDoubleBuffer().put(values, i, chunk);
+            buffer.position(buffer.position() + 8 * chunk);
+            i += chunk;
+        }
+    }
+
+    /**
+     * Writes the first entries of an array, without their number.
+     *
+     * @param values the array.
+     * @param length the number of entries written.
+     * @throws IOException if they cannot be written.
+     */
+    public void writeBytes(@NotNull byte[] values, int length) throws IOException {
+        for (int i = 0; i < length; ) {
+            ensure(1);
+            int chunk = Math.min(length - i, buffer.remaining());
+            buffer.put(values, i, chunk);
+            i += chunk;
+        }
+    }
+
+    /**
+     * Writes the first entries of an array, one byte each, without their number.
+     *
+     * @param values the array.
+     * @param length the number of entries written.
+     * @throws IOException if they cannot be written.
+     */
+    public void writeBooleans(@NotNull boolean[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            writeByte(values[i] ? 1 : 0);
+        }
+    }
+
+    /**
+     * Writes a scheduled task, where it is in the {@link GameClock}, so it can be put back in the same place by
+     * {@link SnapshotReader#readTimeout(GameClock, Runnable)}.
+     *
+     * @param timeout the task, or null if nothing is scheduled.
+     * @throws IOException if it cannot be written.
+     */
+    public void writeTimeout(TimingWheel.Timeout timeout) throws IOException {
+        boolean pending = timeout != null && timeout.isPending();
+        writeBoolean(pending);
+        if (pending) {
+            writeLong(timeout.getDeadline());
+            writeInt(timeout.getBucket());
+            writeLong(timeout.getSequence());
+        }
+    }
+
+    /**
+     * Writes a stream of random numbers, where it is up to.
+     *
+     * @param random the stream.
+     * @throws IOException if it cannot be written.
+     */
+    public void writeRandom(@NotNull GameRandom random) throws IOException {
+        writeLong(random.getSeed());
+        writeLong(random.getGamma());
+    }
+
+    /**
+     * Writes whatever is left in the buffer and closes the file. Does nothing when writing to memory.
+     *
+     * @throws IOException if it cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // makes room for a number of bytes
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (channel != null) {
+            flush();
+            return;
+        }
+        // in memory, the buffer doubles
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), buffer.position() + bytes))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
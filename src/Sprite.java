@@ -20,19 +20,24 @@ import org.jetbrains.annotations.NotNull;
  */
 public abstract class Sprite {
 
-    private final Image image;
+    private final String imageSrc;
+    private Image image;
     private Point position;
+    // position before the last move, for drawing between ticks
+    private Point previousPosition;
     private Orientation orientation;
 
     /**
      * Creates a new Sprite (game entity)
      *
      * @param point    The starting point for the entity
-     * @param imageSrc The image which will be rendered at the entity's point
+     * @param imageSrc The image which will be rendered at the entity's point, only loaded when it is first needed
      */
     public Sprite(Point point, String imageSrc) {
-        this.image = new Image(imageSrc);
+        this.imageSrc = imageSrc;
+        this.image = null;
         this.position = point;
+        this.previousPosition = point;
         this.orientation = new Orientation();
     }
 
@@ -43,8 +48,10 @@ public abstract class Sprite {
      * @param image The image which will be rendered at the entity's point
      */
     public Sprite(Point point, Image image) {
+        this.imageSrc = null;
         this.image = image;
         this.position = point;
+        this.previousPosition = point;
         this.orientation = new Orientation();
     }
 
@@ -55,7 +62,21 @@ public abstract class Sprite {
      * @return the bounding box
      */
     public Rectangle getRect() {
-        return this.image.getBoundingBoxAt(getPosition());
+        return getImage().getBoundingBoxAt(getPosition());
+    }
+
+    /**
+     * Gets the image of the sprite, from {@link Assets} on first use.
+     * <p>
+     * Images need a window to be loaded, so sprites that are only simulated never load theirs.
+     *
+     * @return the image.
+     */
+    protected Image getImage() {
+        if (image == null) {
+            image = Assets.getImage(imageSrc);
+        }
+        return image;
     }
 
 
@@ -65,9 +86,32 @@ public abstract class Sprite {
 
 
     public void setPosition(Point position) {
+        this.previousPosition = this.position;
+        this.position = position;
+    }
+
+    /**
+     * Puts the Sprite at a point without it passing the points in between, e.g. when it is first placed or when it
+     * wraps around. An interpolated render never draws it anywhere else.
+     *
+     * @param position the new position.
+     */
+    public void teleport(Point position) {
+        this.previousPosition = position;
         this.position = position;
     }
 
+    /**
+     * Gets a point between the position of the Sprite before its last move and its current position.
+     *
+     * @param alpha how far between the two positions the point is, 0 is the previous position, 1 the current one.
+     * @return the point.
+     */
+    public Point getInterpolatedPosition(double alpha) {
+        return new Point(previousPosition.x + (position.x - previousPosition.x) * alpha,
+                previousPosition.y + (position.y - previousPosition.y) * alpha);
+    }
+
     /**
      * Moves the Sprite by a specified delta
      *
@@ -116,7 +160,7 @@ public abstract class Sprite {
      * Renders the Sprite at its current position.
      */
     public void render(){
-        this.image.draw(getPosition().x, getPosition().y, new DrawOptions().setRotation(orientation.getAngle()));
+        getImage().draw(getPosition().x, getPosition().y, new DrawOptions().setRotation(orientation.getAngle()));
     }
 
     /**
@@ -125,7 +169,30 @@ public abstract class Sprite {
      * @param orientation the {@link Orientation} of the sprite
      */
     public void render(@NotNull Orientation orientation){
-        this.image.draw(getPosition().x, getPosition().y, new DrawOptions().setRotation(orientation.getAngle()));
+        getImage().draw(getPosition().x, getPosition().y, new DrawOptions().setRotation(orientation.getAngle()));
+    }
+
+    /**
+     * Renders the Sprite part of the way from its position before its last move to its current position.
+     * <p>
+     * The game advances in fixed ticks and is drawn in between, drawing moving sprites between their last two
+     * positions keeps them moving smoothly no matter how many ticks pass between two frames.
+     *
+     * @param alpha how far along the last move the sprite is drawn, from 0 to 1.
+     */
+    public void render(double alpha){
+        render(orientation, alpha);
+    }
+
+    /**
+     * Renders the Sprite part of the way along its last move with an orientation specified.
+     *
+     * @param orientation the {@link Orientation} of the sprite
+     * @param alpha       how far along the last move the sprite is drawn, from 0 to 1.
+     */
+    public void render(@NotNull Orientation orientation, double alpha){
+        Point point = getInterpolatedPosition(alpha);
+        getImage().draw(point.x, point.y, new DrawOptions().setRotation(orientation.getAngle()));
     }
 
     /**
@@ -134,7 +201,7 @@ public abstract class Sprite {
      * @param options customisations of the rendering of the image
      */
     public void render(DrawOptions options){
-        this.image.draw(getPosition().x, getPosition().y, options);
+        getImage().draw(getPosition().x, getPosition().y, options);
     }
 
     /**
@@ -1,6 +1,5 @@
 import bagel.DrawOptions;
 import bagel.Font;
-import bagel.Image;
 import bagel.Window;
 import bagel.util.Colour;
 import bagel.util.Point;
@@ -9,13 +8,11 @@ import bagel.util.Point;
  * A panel that renders at the bottom of the screen, showing the {@link Wave} number,
  * the current {@link Timescale}, and the {@link Player}'s HP.
  *
- * Is singleton
+ * Belongs to the {@link ShadowDefend} that draws it.
  */
-// Singleton
 public class StatusPanel extends Sprite {
     private static final String IMG_SRC = "res/images/statuspanel.png";
     private static final int HEIGHT = 13;
-    private static StatusPanel statusPanel;
     /**
      * The Status that indicates victory.
      */
@@ -33,31 +30,29 @@ public class StatusPanel extends Sprite {
      * The Status that indicates a {@link Wave} is in progress
      */
     public static final String STATUS_WAVE_IN_PROGRESS = "Wave in progress";
-    private static final Font font = new Font("res/fonts/DejaVuSans-Bold.ttf", 20);
+    private static final String FONT_SRC = "res/fonts/DejaVuSans-Bold.ttf";
+    private static final int FONT_SIZE = 20;
     private static final int HORIZONTAL_GAP = 232; //px
     private static final int TOP_OFFSET = 5; //px
 
     private int waveNumber;
     private String status;
-
-
-    private StatusPanel() {
-        super(new Point(new Image(IMG_SRC).getWidth() / 2, Window.getHeight() - HEIGHT),
-                IMG_SRC);
-        waveNumber = 1;
-        status = STATUS_AWAITING_START;
-    }
+    private final GameContext context;
+    // looked up once, every frame draws with it
+    private final Font font;
 
     /**
-     * Gets the instance of StatusPanel.
+     * Instantiates a new StatusPanel, once the window has been created.
      *
-     * @return the instance of StatusPanel.
+     * @param context the game whose timescale and player's HP are shown.
      */
-    public static StatusPanel getPanel() {
-        if (statusPanel == null){
-            statusPanel = new StatusPanel();
-        }
-        return statusPanel;
+    public StatusPanel(GameContext context) {
+        super(new Point(Assets.getImage(IMG_SRC).getWidth() / 2, Window.getHeight() - HEIGHT),
+                IMG_SRC);
+        this.context = context;
+        this.font = Assets.getFont(FONT_SRC, FONT_SIZE);
+        waveNumber = 1;
+        status = STATUS_AWAITING_START;
     }
 
     /**
@@ -76,7 +71,7 @@ public class StatusPanel extends Sprite {
         x += HORIZONTAL_GAP;
 
         // change colour to green if timescale is greater than 1
-        int timescale = Timescale.getTimescale().val();
+        int timescale = context.getTimescale().val();
         if(timescale > 1){
             colour.setBlendColour(Colour.GREEN);
         }
@@ -85,7 +80,7 @@ public class StatusPanel extends Sprite {
         x += HORIZONTAL_GAP;
         font.drawString("Status: " + status, x, y);
         x += HORIZONTAL_GAP * 2;
-        font.drawString("Lives: " + Player.getPlayer().getHP(), x, y);
+        font.drawString("Lives: " + context.getPlayer().getHP(), x, y);
 
     }
 
@@ -100,10 +95,12 @@ public class StatusPanel extends Sprite {
     }
 
     /**
-     * Increase wave number by 1.
+     * Sets the wave number to be shown.
+     *
+     * @param waveNumber the wave number.
      */
-    public void increaseWaveNumber(){
-        waveNumber += 1;
+    public void setWaveNumber(int waveNumber){
+        this.waveNumber = waveNumber;
     }
 }
 
@@ -1,11 +1,8 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.util.Point;
 import bagel.util.Rectangle;
-import java.util.ArrayList;
 
 /**
- * A type of {@link ActiveTower}, shoots {@link SuperTankProjectile}s.
+ * A type of {@link ActiveTower}, shoots {@link SuperTankProjectile}s at the enemy in range with the most HP left.
  */
 public class SuperTank extends ActiveTower {
     private static final String DEFAULT_IMG_SRC = "res/images/supertank.png";
@@ -13,6 +10,7 @@ public class SuperTank extends ActiveTower {
     private static final int DEFAULT_CD = 500; // ms
     private static final int DEFAULT_PRICE = 600;
     private static final int PROJECTILE_ID = 1; // 1 = supertank projectile
+    private static final TargetingPolicy POLICY = TargetingPolicy.STRONGEST;
     private static final int HIT_BOX_SIZE = 50;
 
 
@@ -22,7 +20,7 @@ public class SuperTank extends ActiveTower {
      * @param point the location of the Super Tank.
      */
     public SuperTank(Point point) {
-        super(point, new Image(DEFAULT_IMG_SRC), DEFAULT_RANGE, DEFAULT_CD, PROJECTILE_ID);
+        super(point, DEFAULT_IMG_SRC, DEFAULT_RANGE, DEFAULT_CD, PROJECTILE_ID, POLICY);
         super.getOrientation().setAngle(Orientation.N);
     }
 
@@ -31,8 +29,8 @@ public class SuperTank extends ActiveTower {
     }
 
     @Override
-    public void update(Input input, ArrayList<Slicer> slicers) {
-        super.update(input, slicers);
+    public void update(GameContext context, SlicerGrid slicers, Rectangle bounds) {
+        super.update(context, slicers, bounds);
     }
     @Override
     public Rectangle getHitBox() {
@@ -1,4 +1,3 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
@@ -9,14 +8,56 @@ public class SuperTankProjectile extends Projectile{
     private static final String DEFAULT_IMG_SRC = "res/images/supertank_projectile.png";
     private static final int DEFAULT_DAMAGE = 10;
     private static final double DEFAULT_SPEED = 10; // px/f
+    private Pool<SuperTankProjectile> pool;
+
+    private SuperTankProjectile() {
+        super(DEFAULT_IMG_SRC, DEFAULT_DAMAGE, DEFAULT_SPEED);
+    }
+
+    /**
+     * Creates an empty pool for super tank projectiles, every game has its own.
+     *
+     * @return the pool.
+     */
+    public static Pool<SuperTankProjectile> newPool() {
+        return new Pool<>("super tank projectile", SuperTankProjectile::new);
+    }
 
     /**
-     * Instantiates a new Super tank projectile.
+     * Fires a super tank projectile, reusing one from the pool of the game if there is one.
      *
-     * @param start  the starting location of the projectile
-     * @param target the target of the projectile
+     * @param context the game the projectile is fired in
+     * @param start   the starting location of the projectile
+     * @param slicers the slicers on the map
+     * @param target  the handle of the target of the projectile
+     * @return the projectile
      */
-    public SuperTankProjectile(Point start, Slicer target) {
-        super(start, target, new Image(DEFAULT_IMG_SRC), DEFAULT_DAMAGE, DEFAULT_SPEED);
+    public static SuperTankProjectile fire(GameContext context, Point start, SlicerGrid slicers, int target) {
+        SuperTankProjectile projectile = context.getSuperTankProjectiles().acquire();
+        projectile.pool = context.getSuperTankProjectiles();
+        projectile.reset(start, slicers, target);
+        return projectile;
+    }
+
+    /**
+     * Puts a super tank projectile saved in a {@link Snapshot} back in flight, reusing one from the pool of the game if
+     * there is one.
+     *
+     * @param context  the game the projectile is in
+     * @param position where the projectile is
+     * @param slicers  the slicers on the map
+     * @param target   the handle of the target of the projectile
+     * @return the projectile
+     */
+    public static SuperTankProjectile restore(GameContext context, Point position, SlicerGrid slicers, int target) {
+        SuperTankProjectile projectile = context.getSuperTankProjectiles().acquire();
+        projectile.pool = context.getSuperTankProjectiles();
+        projectile.resume(position, slicers, target);
+        return projectile;
+    }
+
+    @Override
+    public void release() {
+        pool.release(this);
     }
 }
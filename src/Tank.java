@@ -1,11 +1,8 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.util.Point;
 import bagel.util.Rectangle;
-import java.util.ArrayList;
 
 /**
- * A type of {@link ActiveTower}, shoots {@link TankProjectile}s.
+ * A type of {@link ActiveTower}, shoots {@link TankProjectile}s at the enemy in range that is furthest along.
  */
 public class Tank extends ActiveTower {
     private static final String DEFAULT_IMG_SRC = "res/images/tank.png";
@@ -13,6 +10,7 @@ public class Tank extends ActiveTower {
     private static final int DEFAULT_CD = 150; // ms
     private static final int DEFAULT_PRICE = 250;
     private static final int PROJECTILE_ID = 0; // 0 = tank projectile
+    private static final TargetingPolicy POLICY = TargetingPolicy.FIRST;
     private static final int HIT_BOX_SIZE = 40;
 
     /**
@@ -21,7 +19,7 @@ public class Tank extends ActiveTower {
      * @param point the location of the Tank.
      */
     public Tank(Point point) {
-        super(point, new Image(DEFAULT_IMG_SRC), DEFAULT_RANGE, DEFAULT_CD, PROJECTILE_ID);
+        super(point, DEFAULT_IMG_SRC, DEFAULT_RANGE, DEFAULT_CD, PROJECTILE_ID, POLICY);
         super.getOrientation().setAngle(Orientation.N);
     }
 
@@ -30,8 +28,8 @@ public class Tank extends ActiveTower {
     }
 
     @Override
-    public void update(Input input, ArrayList<Slicer> slicers) {
-        super.update(input, slicers);
+    public void update(GameContext context, SlicerGrid slicers, Rectangle bounds) {
+        super.update(context, slicers, bounds);
     }
 
     @Override
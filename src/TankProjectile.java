@@ -1,4 +1,3 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
@@ -9,14 +8,56 @@ public class TankProjectile extends Projectile{
     private static final String DEFAULT_IMG_SRC = "res/images/tank_projectile.png";
     private static final int DEFAULT_DAMAGE = 1;
     private static final double DEFAULT_SPEED = 10; // px/f
+    private Pool<TankProjectile> pool;
+
+    private TankProjectile() {
+        super(DEFAULT_IMG_SRC, DEFAULT_DAMAGE, DEFAULT_SPEED);
+    }
+
+    /**
+     * Creates an empty pool for tank projectiles, every game has its own.
+     *
+     * @return the pool.
+     */
+    public static Pool<TankProjectile> newPool() {
+        return new Pool<>("tank projectile", TankProjectile::new);
+    }
 
     /**
-     * Instantiates a new Tank projectile.
+     * Fires a tank projectile, reusing one from the pool of the game if there is one.
      *
-     * @param start  the starting location of the projectile
-     * @param target the target of the projectile
+     * @param context the game the projectile is fired in
+     * @param start   the starting location of the projectile
+     * @param slicers the slicers on the map
+     * @param target  the handle of the target of the projectile
+     * @return the projectile
      */
-    public TankProjectile(Point start, Slicer target) {
-        super(start, target, new Image(DEFAULT_IMG_SRC), DEFAULT_DAMAGE, DEFAULT_SPEED);
+    public static TankProjectile fire(GameContext context, Point start, SlicerGrid slicers, int target) {
+        TankProjectile projectile = context.getTankProjectiles().acquire();
+        projectile.pool = context.getTankProjectiles();
+        projectile.reset(start, slicers, target);
+        return projectile;
+    }
+
+    /**
+     * Puts a tank projectile saved in a {@link Snapshot} back in flight, reusing one from the pool of the game if there
+     * is one.
+     *
+     * @param context  the game the projectile is in
+     * @param position where the projectile is
+     * @param slicers  the slicers on the map
+     * @param target   the handle of the target of the projectile
+     * @return the projectile
+     */
+    public static TankProjectile restore(GameContext context, Point position, SlicerGrid slicers, int target) {
+        TankProjectile projectile = context.getTankProjectiles().acquire();
+        projectile.pool = context.getTankProjectiles();
+        projectile.resume(position, slicers, target);
+        return projectile;
+    }
+
+    @Override
+    public void release() {
+        pool.release(this);
     }
 }
@@ -0,0 +1,70 @@
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The ways an {@link ActiveTower} can pick which slicer in its range to shoot at. Each type of tower has its own.
+ * <p>
+ * The range of a tower is given as the stretches of the route it covers, see {@link Route#coverage}, and every
+ * policy asks the {@link ProgressIndex} for its pick on each stretch, so a pick takes O(stretches * log n).
+ */
+public enum TargetingPolicy {
+    /**
+     * Shoots at the slicer furthest along the route, the one closest to getting past.
+     */
+    FIRST {
+        @Override
+        public int select(@NotNull ProgressIndex index, @NotNull double[] coverage) {
+            int best = -1;
+            // the stretches go along the route, so the last one with a target has the furthest along
+            for (int i = 0; i < coverage.length; i += 2) {
+                int slot = index.first(coverage[i], coverage[i + 1]);
+                if (slot != -1) {
+                    best = slot;
+                }
+            }
+            return best;
+        }
+    },
+    /**
+     * Shoots at the slicer least far along the route.
+     */
+    LAST {
+        @Override
+        public int select(@NotNull ProgressIndex index, @NotNull double[] coverage) {
+            for (int i = 0; i < coverage.length; i += 2) {
+                int slot = index.last(coverage[i], coverage[i + 1]);
+                if (slot != -1) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+    },
+    /**
+     * Shoots at the slicer with the most HP left, the furthest along out of equally strong ones.
+     */
+    STRONGEST {
+        @Override
+        public int select(@NotNull ProgressIndex index, @NotNull double[] coverage) {
+            int best = -1;
+            int bestHp = 0;
+            for (int i = 0; i < coverage.length; i += 2) {
+                int slot = index.strongest(coverage[i], coverage[i + 1]);
+                // later stretches are further along, so they win ties
+                if (slot != -1 && index.hpLeft(slot) >= bestHp) {
+                    best = slot;
+                    bestHp = index.hpLeft(slot);
+                }
+            }
+            return best;
+        }
+    };
+
+    /**
+     * Picks the slicer to shoot at.
+     *
+     * @param index    the index of the slicers on the map.
+     * @param coverage the stretches of the route in range of the tower.
+     * @return the slot of the slicer, or -1 if there is nothing in range to shoot at.
+     */
+    public abstract int select(@NotNull ProgressIndex index, @NotNull double[] coverage);
+}
@@ -1,27 +1,30 @@
 /**
- * Keeps the game-wide timescale multiplier. Timescale is a Singleton.
+ * Keeps the timescale multiplier of a game. Every game has its own, see {@link GameContext}.
+ * <p>
+ * The timescale is the number of {@link Simulation} ticks run per tick of real time. Every tick is the same small
+ * step, so a game at any timescale plays out exactly like it does at 1, only faster.
  */
 public class Timescale {
     // change this to change the default game-wide timescale
     private static final int DEFAULT_TIMESCALE = 1;
 
-    private static Timescale instance;
-    private int timescale;
+    /**
+     * The lowest timescale.
+     */
+    public static final int MIN_TIMESCALE = 1;
 
-    private Timescale(int timescale) {
-        this.timescale = timescale;
-    }
+    /**
+     * The highest timescale, i.e. the most ticks run per tick of real time.
+     */
+    public static final int MAX_TIMESCALE = 50;
+
+    private int timescale;
 
     /**
-     * Get the Timescale instance.
-     *
-     * @return the instance of Timescale
+     * Instantiates a new Timescale, at the default timescale.
      */
-    public static Timescale getTimescale(){
-        if(Timescale.instance == null){
-            Timescale.instance = new Timescale(DEFAULT_TIMESCALE);
-        }
-        return Timescale.instance;
+    public Timescale() {
+        this.timescale = DEFAULT_TIMESCALE;
     }
 
 
@@ -35,23 +38,25 @@ public class Timescale {
     }
 
     /**
-     * Increments the timescale by an amount specified.
+     * Increments the timescale by an amount specified, up to {@link #MAX_TIMESCALE}.
      *
      * @param increment the amount
      */
     public void incTimescale(int increment) {
-        Timescale.getTimescale().timescale = Timescale.getTimescale().timescale + increment;
+        timescale = bound(timescale + increment);
     }
 
     /**
-     * Decrements the timescale by an amount specified.
+     * Decrements the timescale by an amount specified, down to {@link #MIN_TIMESCALE}.
      *
      * @param difference the amount
      */
     public void decTimescale(int difference) {
-        if(Timescale.getTimescale().timescale > 1){
-            Timescale.getTimescale().timescale = Timescale.getTimescale().timescale - difference;
-        }
+        timescale = bound(timescale - difference);
+    }
+
+    private static int bound(int timescale) {
+        return Math.min(Math.max(timescale, MIN_TIMESCALE), MAX_TIMESCALE);
     }
 
 }
@@ -0,0 +1,316 @@
+/**
+ * A hierarchical timing wheel, runs tasks a given number of ticks in the future.
+ * <p>
+ * The wheel has 4 levels of 64 slots. A slot of level 0 holds the tasks due on one tick, a slot of every level above
+ * holds the tasks due in a span 64 times longer than a slot of the level below. When the wheel gets to the span of a
+ * slot, the tasks in it are moved down a level, until they end up in level 0 and run. Scheduling, cancelling and
+ * running a task each take O(1), a tick with nothing due only looks at one slot, so tasks that are only waiting cost
+ * nothing.
+ * <p>
+ * Tasks due on the same tick run in the order they got to level 0 in, which only depends on the order they were
+ * scheduled in.
+ * <p>
+ * Every task is numbered as it is put in a slot, so the tasks of a slot are in the order of their numbers. A task's
+ * slot and number are enough to put it back in the same place of a new wheel, see {@link #restore}.
+ */
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // tasks further away than this wait in the last slot of the top level and are put back in when they get there
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+    // bucket of the tasks that are being run
+    private static final int DUE = -1;
+
+    // first and last task of each slot, slot s of level l is at l * SLOTS + s
+    private final Timeout[] heads;
+    private final Timeout[] tails;
+    private long now;
+    private int size;
+    // number of the next task put in a slot
+    private long sequence;
+
+    /**
+     * Instantiates a new, empty TimingWheel at tick 0.
+     */
+    public TimingWheel() {
+        this.heads = new Timeout[LEVELS * SLOTS];
+        this.tails = new Timeout[LEVELS * SLOTS];
+        this.now = 0;
+        this.size = 0;
+        this.sequence = 0;
+    }
+
+    /**
+     * Gets the current tick.
+     *
+     * @return the number of ticks the wheel has advanced by.
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Gets the number of tasks waiting to run.
+     *
+     * @return the number of tasks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a task to be run a number of ticks from now.
+     *
+     * @param ticks the number of ticks, at least 1.
+     * @param task  the task.
+     * @return the scheduled task, which can be cancelled.
+     */
+    public Timeout schedule(long ticks, Runnable task) {
+        if (ticks < 1) {
+            throw new IllegalArgumentException("a task must be scheduled at least 1 tick ahead, not " + ticks);
+        }
+        Timeout timeout = new Timeout(this, now + ticks, task);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs every task that is due on it. Tasks may schedule other tasks.
+     */
+    public void advance() {
+        now++;
+        // move the tasks of every span that starts now down, from the top level down so none are skipped
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                Timeout timeout = detach(level * SLOTS + slotOf(now, level));
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    insert(timeout);
+                    timeout = next;
+                }
+            }
+        }
+        // everything left in the slot of this tick is due
+        Timeout due = detach(slotOf(now, 0));
+        for (Timeout timeout = due; timeout != null; timeout = timeout.next) {
+            timeout.bucket = DUE;
+        }
+        while (due != null) {
+            Timeout next = due.next;
+            due.previous = null;
+            due.next = null;
+            // a task run before may have cancelled this one
+            if (due.wheel != null) {
+                due.wheel = null;
+                size--;
+                due.task.run();
+            }
+            due = next;
+        }
+    }
+
+    /**
+     * Puts a task back where it was in a wheel that was saved, e.g. in a {@link Snapshot}. The wheel must be at the
+     * tick it was saved on, see {@link #clear(long)}. Tasks of the same slot can be restored in any order, they end up
+     * in the order of their numbers.
+     *
+     * @param deadline the tick the task is due on, see {@link Timeout#getDeadline()}.
+     * @param bucket   the slot the task was in, see {@link Timeout#getBucket()}.
+     * @param sequence the number of the task, see {@link Timeout#getSequence()}.
+     * @param task     the task.
+     * @return the restored task, which can be cancelled.
+     */
+    public Timeout restore(long deadline, int bucket, long sequence, Runnable task) {
+        if (deadline <= now || bucket < 0 || bucket >= heads.length) {
+            throw new IllegalArgumentException("no task is due on tick " + deadline + " in slot " + bucket);
+        }
+        Timeout timeout = new Timeout(this, deadline, task);
+        timeout.bucket = bucket;
+        timeout.sequence = sequence;
+        // after every task of the slot with a lower number
+        Timeout previous = tails[bucket];
+        while (previous != null && previous.sequence > sequence) {
+            previous = previous.previous;
+        }
+        Timeout next = previous == null ? heads[bucket] : previous.next;
+        timeout.previous = previous;
+        timeout.next = next;
+        if (previous != null) {
+            previous.next = timeout;
+        }
+        else {
+            heads[bucket] = timeout;
+        }
+        if (next != null) {
+            next.previous = timeout;
+        }
+        else {
+            tails[bucket] = timeout;
+        }
+        this.sequence = Math.max(this.sequence, sequence + 1);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels every task and puts the wheel back at tick 0.
+     */
+    public void clear() {
+        clear(0);
+    }
+
+    /**
+     * Cancels every task and puts the wheel at a given tick, e.g. to restore a wheel that was saved on that tick.
+     *
+     * @param now the tick.
+     */
+    public void clear(long now) {
+        for (int i = 0; i < heads.length; i++) {
+            Timeout timeout = heads[i];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.wheel = null;
+                timeout.previous = null;
+                timeout.next = null;
+                timeout = next;
+            }
+            heads[i] = null;
+            tails[i] = null;
+        }
+        this.now = now;
+        this.size = 0;
+        this.sequence = 0;
+    }
+
+    // removes a scheduled task, called by the task
+    void cancel(Timeout timeout) {
+        size--;
+        if (timeout.bucket == DUE) {
+            // being run this tick, it is skipped
+            return;
+        }
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        }
+        else {
+            heads[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        else {
+            tails[timeout.bucket] = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+    }
+
+    // appends a task to the slot its deadline falls in, relative to the current tick
+    private void insert(Timeout timeout) {
+        long delta = timeout.deadline - now;
+        int bucket;
+        if (delta >= SPAN) {
+            // too far away, wait in the slot that comes up last
+            bucket = (LEVELS - 1) * SLOTS + slotOf(now + SPAN - 1, LEVELS - 1);
+        }
+        else {
+            int level = 0;
+            while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            bucket = level * SLOTS + slotOf(timeout.deadline, level);
+        }
+        timeout.bucket = bucket;
+        timeout.sequence = sequence++;
+        timeout.next = null;
+        timeout.previous = tails[bucket];
+        if (tails[bucket] != null) {
+            tails[bucket].next = timeout;
+        }
+        else {
+            heads[bucket] = timeout;
+        }
+        tails[bucket] = timeout;
+    }
+
+    // empties a slot, returns its first task, the rest follow through next
+    private Timeout detach(int bucket) {
+        Timeout head = heads[bucket];
+        heads[bucket] = null;
+        tails[bucket] = null;
+        return head;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    /**
+     * A task scheduled in a {@link TimingWheel}.
+     */
+    public static final class Timeout {
+        private TimingWheel wheel;
+        private final long deadline;
+        private final Runnable task;
+        private int bucket;
+        private long sequence;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, long deadline, Runnable task) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * Gets the tick the task is due on.
+         *
+         * @return the tick.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Gets the slot the task is waiting in, to save it, see {@link TimingWheel#restore}.
+         *
+         * @return the slot.
+         */
+        public int getBucket() {
+            return bucket;
+        }
+
+        /**
+         * Gets the number the task was given when it was put in its slot, to save it, see
+         * {@link TimingWheel#restore}.
+         *
+         * @return the number.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Checks if the task is still waiting to run.
+         *
+         * @return true if the task has neither run nor been cancelled, false if otherwise.
+         */
+        public boolean isPending() {
+            return wheel != null;
+        }
+
+        /**
+         * Cancels the task if it is still waiting to run.
+         */
+        public void cancel() {
+            if (wheel != null) {
+                wheel.cancel(this);
+                wheel = null;
+            }
+        }
+    }
+}
@@ -1,59 +1,117 @@
-import bagel.Image;
-import bagel.Input;
-import bagel.Window;
 import bagel.util.Point;
-import java.util.ArrayList;
+import bagel.util.Rectangle;
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
 
 
 /**
  * Towers are entities that the player can place to defend the player.
  */
 public abstract class Tower extends Sprite{
+    private GameRandom random;
+
     /**
      * Instantiates a new Tower.
      *
      * @param point the location of the tower.
-     * @param image the image of the tower.
+     * @param imageSrc the image of the tower.
      */
-    public Tower(Point point, Image image) {
-        super(point, image);
+    public Tower(Point point, String imageSrc) {
+        super(point, imageSrc);
     }
 
     /**
      * Update the tower and all artifacts that belong to it, such as {@link Projectile}s and {@link Bomb}s.
      *
-     * @param input   the input
-     * @param slicers an array list of all the {@link Slicer}s active in the current {@link Level}.
-     * @see Slicer
+     * @param context the game the tower is in.
+     * @param slicers all the slicers active in the current {@link Level}.
+     * @param bounds  the bounds of the map of the current {@link Level}.
+     * @see SlicerStore
+     * @see SlicerGrid
      * @see Level
      * @see Projectile
      * @see Bomb
      */
-    public void update(Input input, ArrayList<Slicer> slicers){
-        super.render();
-    }
+    public abstract void update(GameContext context, SlicerGrid slicers, Rectangle bounds);
 
     /**
-     * Renders the Tower.
+     * Works out the part of the tower's next {@link #update(GameContext, SlicerGrid, Rectangle)} that only depends
+     * on the slicers as they were at the start of the tick, e.g. where it aims and where its projectiles fly. The
+     * slicers are only read, so every tower can be prepared at the same time, on different threads. Does nothing by
+     * default.
      *
-     * @param input the input
+     * @param slicers all the slicers active in the current {@link Level}.
+     * @see TowerUpdater
      */
-    public void update(Input input){
-        super.render();
+    public void prepare(SlicerGrid slicers) {
     }
 
     public abstract int getPrice();
 
     /**
-     * Checks if the tower is located in the window.
+     * Gives the tower the stream of random numbers it draws from, split from the game's when it is placed, see
+     * {@link GameContext#splitRandom()}.
+     *
+     * @param random the stream.
+     */
+    public void setRandom(GameRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Gets the stream of random numbers of the tower. No other tower draws from it, so towers can draw random numbers
+     * on any thread and the numbers each one draws never depend on the others.
      *
-     * @return true if the tower is in the window, false if otherwise.
+     * @return the stream, or null if the tower has not been placed.
      */
-// checks if the tower is in the window
-    public boolean inWindow(){
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Checks if the tower is located in the map.
+     *
+     * @param bounds the bounds of the map.
+     * @return true if the tower is in the map, false if otherwise.
+     */
+// checks if the tower is in the map
+    public boolean inBounds(Rectangle bounds){
         Point location = super.getPosition();
-        return !(location.x > Window.getWidth()) && !(location.x < 0) &&
-                !(location.y > Window.getHeight()) && !(location.y < 0);
+        return !(location.x > bounds.right()) && !(location.x < bounds.left()) &&
+                !(location.y > bounds.bottom()) && !(location.y < bounds.top());
+
+    }
 
+    /**
+     * Gives back whatever the tower holds that was taken from the pools of the game, when the tower is taken off the
+     * map for good, e.g. when an earlier tick is restored. Does nothing by default.
+     */
+    public void release() {
+    }
+
+    /**
+     * Writes the state of the tower to a {@link Snapshot}, everything but its type and position, which are written by
+     * its {@link Level}, and everything that belongs to it, such as its projectiles and bombs.
+     *
+     * @param out where the tower is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeDouble(super.getOrientation().getAngle());
+        out.writeRandom(random);
+    }
+
+    /**
+     * Puts the tower back in the state written by {@link #save(SnapshotWriter)}, called once the tower has been placed.
+     *
+     * @param in      where the tower is read from.
+     * @param context the game the tower is in, with its clock at the tick the snapshot was taken on.
+     * @param slicers the slicers of the {@link Level}, already restored.
+     * @throws IOException if it cannot be read.
+     */
+    public void restore(@NotNull SnapshotReader in, @NotNull GameContext context, @NotNull SlicerGrid slicers)
+            throws IOException {
+        super.getOrientation().setAngle(in.readDouble());
+        random = in.readRandom();
     }
 }
@@ -0,0 +1,135 @@
+import bagel.util.Point;
+import org.jetbrains.annotations.NotNull;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Scanner;
+
+/**
+ * A scripted set of towers to be placed at the start of each {@link Level}, for playing a game without a player, see
+ * {@link BatchRunner}.
+ * <p>
+ * A layout is a text file in the same form as waves.txt, one tower per line: the Level number, the type of tower
+ * (tank, supertank or airplane) and the x and y of where it goes, separated by commas. Empty lines and lines starting
+ * with # are skipped, e.g.
+ * <pre>
+ * # level,tower,x,y
+ * 1,tank,300,250
+ * 1,supertank,500,450
+ * 2,airplane,300,250
+ * </pre>
+ */
+public class TowerLayout {
+    private final String name;
+    // one entry per tower, in the order of the file
+    private final ArrayList<Integer> levels;
+    private final ArrayList<String> types;
+    private final ArrayList<Point> points;
+
+    private TowerLayout(String name) {
+        this.name = name;
+        this.levels = new ArrayList<>();
+        this.types = new ArrayList<>();
+        this.points = new ArrayList<>();
+    }
+
+    /**
+     * Reads a layout from a file.
+     *
+     * @param path the path of the file.
+     * @return the layout, named after the file.
+     * @throws FileNotFoundException    if there is no such file.
+     * @throws IllegalArgumentException if a line is not a tower.
+     */
+    public static TowerLayout load(@NotNull String path) throws FileNotFoundException {
+        TowerLayout layout = new TowerLayout(path);
+        try (Scanner scanner = new Scanner(new FileInputStream(path))) {
+            int lineNumber = 0;
+            while (scanner.hasNextLine()) {
+                lineNumber++;
+                String line = scanner.nextLine().trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] specs = line.split(",");
+                try {
+                    if (specs.length != 4) {
+                        throw new IllegalArgumentException("expected level,tower,x,y");
+                    }
+                    String type = specs[1].trim();
+                    Point point = new Point(Double.parseDouble(specs[2].trim()), Double.parseDouble(specs[3].trim()));
+                    // fails early on an unknown type
+                    create(type, point);
+                    layout.levels.add(Integer.parseInt(specs[0].trim()));
+                    layout.types.add(type);
+                    layout.points.add(point);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Gets the name of the layout.
+     *
+     * @return the name, the path of the file it was read from.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Places the towers of a Level in a game, in the order of the file. A tower is skipped if the player cannot afford
+     * it or it cannot be placed where it is meant to go.
+     *
+     * @param simulation the game, with the Level active.
+     * @param lv         the Level number.
+     * @return the number of towers skipped.
+     */
+    public int place(@NotNull Simulation simulation, int lv) {
+        Player player = simulation.getContext().getPlayer();
+        int skipped = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            if (levels.get(i) != lv) {
+                continue;
+            }
+            Tower tower = create(types.get(i), points.get(i));
+            if (!player.canAfford(tower) || !simulation.placeTower(tower)) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Gets the number of towers the layout places in a Level.
+     *
+     * @param lv the Level number.
+     * @return the number of towers.
+     */
+    public int size(int lv) {
+        int count = 0;
+        for (int level : levels) {
+            if (level == lv) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // creates a tower from the name of its type
+    private static Tower create(String type, Point point) {
+        switch (type) {
+            case "tank":
+                return new Tank(point);
+            case "supertank":
+                return new SuperTank(point);
+            case "airplane":
+                return new Airplane(point);
+            default:
+                throw new IllegalArgumentException("unknown tower " + type);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import bagel.util.Rectangle;
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+
+/**
+ * Updates every tower in a {@link Level} for a tick, spreading the towers over every core when there are enough of
+ * them, with the same result as updating them one by one.
+ * <p>
+ * A tick of the towers has two phases. First every tower is {@link Tower#prepare(SlicerGrid) prepared}: it picks its
+ * target and moves its projectiles, reading the slicers as they were at the start of the tick and writing the damage
+ * its projectiles deal to its own {@link DamageBuffer}. Nothing shared is written, so the towers are prepared in
+ * parallel. Then every tower is {@link Tower#update(GameContext, SlicerGrid, Rectangle) updated} on one thread in the
+ * order they were placed: its damage is dealt, it shoots, passive towers fly and drop bombs. The rewards for every
+ * slicer killed are added up by the {@link SlicerStore} and paid to the {@link Player} of the game in one transaction
+ * at the end.
+ * <p>
+ * Which thread prepares which tower never changes what is written, and everything written is applied in a fixed
+ * order, so the game plays out the same bit for bit whether the towers are prepared in parallel or not.
+ */
+public class TowerUpdater {
+    /**
+     * The fewest towers that are prepared in parallel by default, below that handing the towers to other threads
+     * takes longer than preparing them.
+     */
+    public static final int DEFAULT_THRESHOLD = 64;
+
+    private int threshold;
+
+    /**
+     * Instantiates a new TowerUpdater that prepares towers in parallel once there are {@link #DEFAULT_THRESHOLD}.
+     */
+    public TowerUpdater() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Instantiates a new TowerUpdater.
+     *
+     * @param threshold the fewest towers that are prepared in parallel, 0 to always and
+     *                  {@link Integer#MAX_VALUE} to never prepare them in parallel.
+     */
+    public TowerUpdater(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gets the fewest towers that are prepared in parallel.
+     *
+     * @return the number of towers.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sets the fewest towers that are prepared in parallel.
+     *
+     * @param threshold the number of towers, 0 to always and {@link Integer#MAX_VALUE} to never prepare them in
+     *                  parallel.
+     */
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Updates every tower for a tick and removes the ones that have left the map.
+     *
+     * @param context the game the towers are in.
+     * @param towers  the towers, in the order they were placed.
+     * @param slicers the slicers on the map, indexed for the tick.
+     * @param bounds  the bounds of the map.
+     */
+    public void update(@NotNull GameContext context, @NotNull ArrayList<Tower> towers, @NotNull SlicerGrid slicers,
+                       @NotNull Rectangle bounds) {
+        SlicerStore store = slicers.getSlicers();
+        if (store != null) {
+            // built here, so the threads only ever read it
+            store.getIndex().build();
+        }
+        if (towers.size() >= threshold) {
+            towers.parallelStream().forEach(tower -> tower.prepare(slicers));
+        }
+        else {
+            for (Tower tower : towers) {
+                tower.prepare(slicers);
+            }
+        }
+
+        // apply whatever the towers worked out, in order, removing airplanes that went outside the map
+        int kept = 0;
+        for (int i = 0; i < towers.size(); i++) {
+            Tower tower = towers.get(i);
+            tower.update(context, slicers, bounds);
+            if (tower.inBounds(bounds)) {
+                towers.set(kept++, tower);
+            }
+        }
+        towers.subList(kept, towers.size()).clear();
+
+        if (store != null) {
+            int reward = store.collectReward();
+            if (reward > 0) {
+                context.getPlayer().transaction(reward);
+            }
+        }
+    }
+}
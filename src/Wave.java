@@ -1,7 +1,6 @@
-import bagel.Input;
 import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /**
  * A Wave consists of a number of {@link WaveEvent}s. All waves belong to some {@link Level}.
@@ -10,7 +9,9 @@ import java.util.Iterator;
  */
 public class Wave {
     private ArrayList<WaveEvent> activeWaveEvents;
-    private Iterator<WaveEvent> incomingWaveEventsIter;
+    private final ArrayList<WaveEvent> waveEvents;
+    // index of the next event to be activated
+    private int nextEvent;
 
     /**
      * Instantiates a new Wave.
@@ -20,29 +21,30 @@ public class Wave {
      */
     public Wave(@NotNull ArrayList<WaveEvent> waveEvents) {
         this.activeWaveEvents = new ArrayList<>();
-        this.incomingWaveEventsIter = waveEvents.iterator();
+        this.waveEvents = waveEvents;
+        this.nextEvent = 0;
     }
 
     /**
      * Updates everything that belongs to the Wave, including all of the active {@link WaveEvent}s.
      *
-     * @param input the input
+     * @param context the game the wave is in.
      * @return true if wave has at least 1 active waveEvent, false if otherwise.
      */
 // updates wave events in the wave, if all wave events have been processed then return false
-    public boolean update(Input input) {
+    public boolean update(GameContext context) {
         // if no event is active
         if(activeWaveEvents.isEmpty()){
             // if no event left, return false
-            if(!incomingWaveEventsIter.hasNext()){
-                System.out.println("Wave ended");
+            if(nextEvent == waveEvents.size()){
+                context.log("Wave ended");
                 return false;
             }
             // activate a new event
-            System.out.println("starting a new event");
-            activeWaveEvents.add(incomingWaveEventsIter.next());
+            context.log("starting a new event");
+            activeWaveEvents.add(waveEvents.get(nextEvent++));
         }
-        updateWaveEvents(input);
+        updateWaveEvents(context);
         return true;
     }
 
@@ -56,7 +58,7 @@ public class Wave {
         return activeWaveEvents;
     }
 
-    private void updateWaveEvents(Input input){
+    private void updateWaveEvents(GameContext context){
         // update current event and if current event has finished, remove it
         int len = activeWaveEvents.size();
 
@@ -67,7 +69,7 @@ public class Wave {
         for(int i = 0; i < len; i ++){
             // update event and get status
             WaveEvent event = activeWaveEvents.get(i);
-            int status = event.update(input);
+            int status = event.update(context);
 
             // event is still active, save it for next round
             if(status >= 0){
@@ -75,13 +77,51 @@ public class Wave {
             }
 
             // if the last activated event finished, try to activate a new event
-            if(status <= 0 && i == len - 1 && incomingWaveEventsIter.hasNext()){
-                temp.add(incomingWaveEventsIter.next());
-                System.out.println("latest event ended, starting a new event");
+            if(status <= 0 && i == len - 1 && nextEvent < waveEvents.size()){
+                temp.add(waveEvents.get(nextEvent++));
+                context.log("latest event ended, starting a new event");
             }
         }
         activeWaveEvents.clear();
         activeWaveEvents.addAll(temp);
         temp.clear();
     }
+
+    /**
+     * Writes how far the wave has got to a {@link Snapshot}: which events have been activated, which are active and
+     * how far every event has got.
+     *
+     * @param out where the wave is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeInt(nextEvent);
+        for (WaveEvent event : waveEvents) {
+            event.save(out);
+        }
+        out.writeInt(activeWaveEvents.size());
+        for (WaveEvent event : activeWaveEvents) {
+            out.writeInt(waveEvents.indexOf(event));
+        }
+    }
+
+    /**
+     * Picks up from where a wave written by {@link #save(SnapshotWriter)} had got to, whether this wave has been
+     * played since or not.
+     *
+     * @param in    where the wave is read from.
+     * @param clock the clock of the game, at the tick the snapshot was taken on.
+     * @throws IOException if it cannot be read.
+     */
+    public void restore(@NotNull SnapshotReader in, @NotNull GameClock clock) throws IOException {
+        nextEvent = in.readCount(waveEvents.size());
+        for (WaveEvent event : waveEvents) {
+            event.restore(in, clock);
+        }
+        int active = in.readCount(nextEvent);
+        activeWaveEvents.clear();
+        for (int i = 0; i < active; i++) {
+            activeWaveEvents.add(waveEvents.get(in.readCount(nextEvent - 1)));
+        }
+    }
 }
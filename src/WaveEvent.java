@@ -1,49 +1,45 @@
-import bagel.Input;
-import bagel.util.Point;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-import java.util.ArrayList;
+import java.io.IOException;
 
 /**
  *  WaveEvents are events in waves, there are two types of WaveEvents: {@link #delayEvent()} and {@link #spawnEvent()}.
  *  <p>
- *  All enemies must belong to a WaveEvent, and is updated when their respective WaveEvent {@link #update(Input)}s.
+ *  All enemies must belong to a WaveEvent, which keeps count of them while they are moved by the {@link SlicerStore}
+ *  they are spawned in.
+ *  <p>
+ *  A spawn event only keeps a description of what it spawns, each slicer is created at the moment it is spawned.
  */
 public class WaveEvent {
-    private static final String REGULAR = "slicer";
-    private static final String SUPER = "superslicer";
-    private static final String MEGA = "megaslicer";
-    private static final String APEX = "apexslicer";
-
-
-    private Timer timer;
-    private String spawnType;
+    private int interval; // ms, between spawns or of the delay
+    private boolean started;
+    private boolean delayOver;
+    private SlicerType spawnType;
     private int enemyCount;
-    private Route route;
-    private ArrayList<Slicer> incomingSlicers;
-    private ArrayList<Slicer> activeSlicers;
+    private int spawnedCount;
+    private SlicerStore slicers;
+    private int owner;
+    // the end of the delay or the next spawn, null if nothing is scheduled
+    private TimingWheel.Timeout timeout;
 
     /**
      * Instantiates a new Spawn Event
      *
-     * @param route         specifies the route that will be assigned to the enemies {@link #spawnEvent()}'s spawn.
+     * @param slicers       the store the enemies a {@link #spawnEvent()} spawns are put in, on its route.
      * @param spawnInterval specifies the delay time, in ms, between spawns in a {@link #spawnEvent()}.
-     * @param spawnType     specifies the spawn of enemies to be spawned in a {@link #spawnEvent()}
+     * @param spawnType     specifies the type of enemies to be spawned in a {@link #spawnEvent()}
      * @param enemyCount    specifies the number of enemies to be spawned in a {@link #spawnEvent()}
-     * @see Route
+     * @see SlicerStore
      */
     // spawn event constructor
-    public WaveEvent(@NotNull Route route, int spawnInterval, String spawnType, int enemyCount) {
-        this.route = route.copy();
+    public WaveEvent(@NotNull SlicerStore slicers, int spawnInterval, SlicerType spawnType, int enemyCount) {
+        this.slicers = slicers;
+        this.owner = slicers.newOwner();
         this.spawnType = spawnType;
         this.enemyCount = enemyCount;
-        this.incomingSlicers = new ArrayList<>();
-        this.activeSlicers = new ArrayList<>();
-        // create the pool of slicers to be spawned
-        for(int i = 0; i < enemyCount; i ++){
-            incomingSlicers.add(this.newSlicer());
-        }
-        this.timer = new Timer(spawnInterval);
+        this.spawnedCount = 0;
+        this.interval = spawnInterval;
+        this.started = false;
+        this.timeout = null;
     }
 
     /**
@@ -51,61 +47,45 @@ public class WaveEvent {
      *
      * @param delayTime specifies the delay time, in ms, for a {@link #delayEvent()}
      */
-    // a delay event is a waveEvent with enemy type {null}, spawn interval {delayTime} and spawn count {0}
+    // a delay event is a waveEvent with no store, spawn interval {delayTime} and spawn count {0}
     // delay event constructor
     public WaveEvent(int delayTime) {
         this.spawnType = null;
         this.enemyCount = 0;
-        this.incomingSlicers = null;
-        this.activeSlicers = null;
-        this.timer = new Timer(delayTime);
+        this.spawnedCount = 0;
+        this.slicers = null;
+        this.owner = SlicerStore.NO_OWNER;
+        this.interval = delayTime;
+        this.started = false;
+        this.delayOver = false;
+        this.timeout = null;
     }
 
 
-    @Nullable
-    private Slicer newSlicer(){
-        Point firstPoint = route.getCurrentTarget();
-        if(this.spawnType.equals(REGULAR)){
-            return new RegularSlicer(firstPoint, this.route);
-        }
-        if(this.spawnType.equals(SUPER)){
-            return new SuperSlicer(firstPoint, this.route);
-        }
-        if(this.spawnType.equals(MEGA)){
-            return new MegaSlicer(firstPoint, this.route);
-        }
-        if(this.spawnType.equals(APEX)){
-            return new ApexSlicer(firstPoint, this.route);
-        }
-        return null;
-    }
-
     /**
      * Calculates and executes the next action in the wave
      *
-     * @param input the player's input
+     * @param context the game the wave is in, whose clock times the spawns and delays.
      * @return integer 1 if event is still active, 0 if event is over but contains active enemies, -1 if event is fully inactive
      */
     // at least 1 enemy is alive on the map, -1 if event is fully complete
-    public int update(Input input){
+    public int update(GameContext context){
         // if it is a delay event
-        if(spawnType == null){
-            return delayEvent();
+        if(slicers == null){
+            return delayEvent(context);
         }
-        // it is a spawn event
-        spawnEvent();
-        // update all slicers
-        updateSlicers(input);
+        // it is a spawn event, its slicers are moved by the store
+        spawnEvent(context);
 
         // checking and returning the status of the wave event
         // if there are unspawned slicers
-        if(!incomingSlicers.isEmpty()){
+        if(spawnedCount < enemyCount){
             return 1;
         }
         // all slicers have been spawned
         else {
             // if no slicers from this event remain on the map
-            if (activeSlicers.isEmpty()){
+            if (slicers.countOf(owner) == 0){
                 return -1;
             }
             // if at least one is still on the map
@@ -116,24 +96,29 @@ public class WaveEvent {
     }
 
     /**
-     * Gets the active slicers in the wave event.
+     * Gets the number of slicers on the map that the wave event spawned, including the ones spawned by its slicers.
      *
-     * @return the active slicers
+     * @return the number of active slicers, 0 for a delay event.
      */
-    public ArrayList<Slicer> getActiveSlicers() {
-        return activeSlicers;
+    public int getActiveSlicerCount() {
+        return slicers == null ? 0 : slicers.countOf(owner);
     }
 
     /**
-     * Runs in {@link #update(Input)}.
+     * Runs in {@link #update(GameContext)}.
      *
      * Delays a certain amount of time before the next WaveEvent
      *
      * @return 1 if the delay is incomplete, -1 if the delay is over
      */
-    private int delayEvent(){
+    private int delayEvent(GameContext context){
+        // the delay starts when the event does
+        if (!started){
+            started = true;
+            timeout = context.getClock().schedule(interval, endDelay());
+        }
         // if delay is over, return -1, otherwise return 1
-        if (timer.tick()){
+        if (delayOver){
             return -1;
         }
         else{
@@ -142,52 +127,70 @@ public class WaveEvent {
     }
 
     /**
-     * Runs in {@link #update(Input)}.
+     * Runs in {@link #update(GameContext)}.
      *
      * Spawns enemies at a fixed rate
      */
-    private void spawnEvent(){
+    private void spawnEvent(GameContext context){
         //if there are still unspawned enemies
-        if(!incomingSlicers.isEmpty()){
-            int poolSize = incomingSlicers.size();
-            if(poolSize == enemyCount){ // at the beginning
-                // spawn one
-                activeSlicers.add(incomingSlicers.remove(0));
+        if(!started && spawnedCount < enemyCount){
+            started = true;
+            // at the beginning, spawn one, the clock spawns the rest
+            spawnSlicer();
+            scheduleSpawn(context.getClock());
+        }
+    }
 
-            }
-            // spawn delay timer
-            if(timer.tick()){
-                // spawn one
-                activeSlicers.add(incomingSlicers.remove(0));
-            }
+    // spawns the next slicer after the spawn interval, if there is one left
+    private void scheduleSpawn(GameClock clock){
+        if(spawnedCount < enemyCount){
+            timeout = clock.schedule(interval, spawnNext(clock));
         }
     }
 
-    private void updateSlicers(Input input){
-        // do calculations and render for every enemy remaining in wave
-        if(!activeSlicers.isEmpty()){
-            ArrayList<Slicer> temp = new ArrayList<>();
-            // update each slicer
-            for (Slicer i: activeSlicers) {
-                if (i.update(input)){
-                    temp.add(i); // temp stores the enemies that are alive
-                }
-                else {
-                    if (!i.isDead()){
-                        // slicer finished traversing alive
-                        Player.getPlayer().damageSelf(i.getDamage());
-                    }
-                }
-                // do any spawning
-                if (i.isDead()){
-                    temp.addAll(i.spawn());
-                }
-            }
-            // remove the dead and the finished
-            activeSlicers.clear();
-            activeSlicers.addAll(temp);
-            temp.clear();
+    private Runnable spawnNext(GameClock clock){
+        return () -> {
+            spawnSlicer();
+            scheduleSpawn(clock);
+        };
+    }
+
+    private Runnable endDelay(){
+        return () -> delayOver = true;
+    }
+
+    /**
+     * Writes how far the event has got to a {@link Snapshot}, including the delay or spawn it is waiting for.
+     *
+     * @param out where the event is written.
+     * @throws IOException if it cannot be written.
+     */
+    public void save(@NotNull SnapshotWriter out) throws IOException {
+        out.writeBoolean(started);
+        out.writeBoolean(delayOver);
+        out.writeInt(spawnedCount);
+        out.writeTimeout(timeout);
+    }
+
+    /**
+     * Picks up from where an event written by {@link #save(SnapshotWriter)} had got to.
+     *
+     * @param in    where the event is read from.
+     * @param clock the clock of the game, at the tick the snapshot was taken on.
+     * @throws IOException if it cannot be read.
+     */
+    public void restore(@NotNull SnapshotReader in, @NotNull GameClock clock) throws IOException {
+        started = in.readBoolean();
+        delayOver = in.readBoolean();
+        spawnedCount = in.readCount(enemyCount);
+        timeout = in.readTimeout(clock, slicers == null ? endDelay() : spawnNext(clock));
+    }
+
+    // puts the next slicer on the map
+    private void spawnSlicer(){
+        if(spawnType != null){
+            slicers.spawn(spawnType, owner);
         }
+        spawnedCount += 1;
     }
 }
-